@@ -0,0 +1,134 @@
+package numberrangesummarizer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the three phases callers actually pay for:
+ * collect (parse), summarizeCollection (runs + render) and the two together.
+ *
+ * Every benchmark runs for each input size and shape. The biggest sizes need a large
+ * heap (the fork gets -Xmx8g); narrow the matrix with -p size=... when iterating.
+ *
+ * Run with: mvn -P jmh verify   (JSON results in target/jmh-result.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class SummarizerBenchmark {
+
+    /**
+     * Input shapes that stress different branches of the run detection.
+     */
+    public enum Shape {
+        // One long run up: best case, a single output range.
+        ASCENDING,
+        // One long run down.
+        DESCENDING,
+        // Triangle wave: direction flips every few values, many short runs.
+        ZIGZAG,
+        // Uniformly random values: almost every value is its own singleton.
+        RANDOM_JUMPS,
+        // Every value repeated four times: duplicates break every run.
+        DUPLICATES
+    }
+
+    @Param({"100", "10000", "1000000", "100000000"})
+    public int size;
+
+    @Param({"ASCENDING", "DESCENDING", "ZIGZAG", "RANDOM_JUMPS", "DUPLICATES"})
+    public Shape shape;
+
+    private final NumberRangeSummarizer summarizer = new NumberRangeSummarizerImpl();
+
+    private String csv;
+    private int[] values;
+    private List<Integer> boxed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = generate(shape, size, new Random(42));
+        boxed = new ArrayList<>(size);
+        final StringBuilder sb = new StringBuilder(size * 8);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(values[i]);
+            boxed.add(values[i]);
+        }
+        csv = sb.toString();
+    }
+
+    @Benchmark
+    public Collection<Integer> collect() {
+        return summarizer.collect(csv);
+    }
+
+    @Benchmark
+    public int[] collectInts() {
+        return summarizer.collectInts(csv);
+    }
+
+    @Benchmark
+    public String summarizeCollection() {
+        return summarizer.summarizeCollection(boxed);
+    }
+
+    @Benchmark
+    public String summarizeInts() {
+        return summarizer.summarize(values);
+    }
+
+    @Benchmark
+    public String endToEnd() {
+        return summarizer.summarizeCollection(summarizer.collect(csv));
+    }
+
+    static int[] generate(final Shape shape, final int size, final Random random) {
+        final int[] out = new int[size];
+        for (int i = 0; i < size; i++) {
+            switch (shape) {
+                case ASCENDING:
+                    out[i] = i;
+                    break;
+                case DESCENDING:
+                    out[i] = size - i;
+                    break;
+                case ZIGZAG:
+                    // 0,1,...,7,8,7,...,1,0,1,... period 16
+                    final int phase = i & 15;
+                    out[i] = phase <= 8 ? phase : 16 - phase;
+                    break;
+                case RANDOM_JUMPS:
+                    out[i] = random.nextInt();
+                    break;
+                case DUPLICATES:
+                    out[i] = i >> 2;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown shape " + shape);
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,46 @@
+package numberrangesummarizer;
+
+/**
+ * IntSequence backed by a slice of an int[]. No copying happens on construction,
+ * so this is the cheapest way to feed an existing array into the summarizer.
+ */
+final class ArrayIntSequence implements IntSequence {
+    private final int[] values;
+    private final int offset;
+    private final int length;
+
+    ArrayIntSequence(final int[] values, final int offset, final int length) {
+        this.values = values;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    // Raw access for loops that scan the array directly (RunScanner).
+    int[] array() {
+        return values;
+    }
+
+    int offset() {
+        return offset;
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+    @Override
+    public int get(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + length);
+        }
+        return values[offset + index];
+    }
+
+    @Override
+    public int[] toArray() {
+        final int[] out = new int[length];
+        System.arraycopy(values, offset, out, 0, length);
+        return out;
+    }
+}
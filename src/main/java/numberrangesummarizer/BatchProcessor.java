@@ -0,0 +1,256 @@
+package numberrangesummarizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-interactive, throughput-oriented line mode: one CSV sequence per input line,
+ * one "Result: …" (or "Error: …") line per input line, in the same order.
+ *
+ * Everything goes through one large buffered reader and one large buffered writer;
+ * there are no prompts and nothing is flushed until the input ends, so tens of
+ * millions of lines cost a handful of syscalls rather than one per line.
+ *
+ * Errors are written inline instead of to stderr so output line N always belongs
+ * to input line N. Blank input lines produce an empty "Result: " line for the same reason.
+ *
+ * With more than one thread the work becomes a bounded pipeline:
+ *   reader thread → blocks of lines → worker pool → in-order writer (calling thread)
+ * The reader hands each block to the pool and queues its Future; the writer takes the
+ * futures in queue order, so output order never depends on which worker finishes first.
+ * The queue holds at most queueDepth blocks, which is both the back-pressure (the reader
+ * waits when it is full) and the reorder window: a slow line holds up the writer, but the
+ * other workers keep going until queueDepth blocks are finished behind it.
+ *
+ * With a SummaryCache, repeated lines are answered from the cache without being parsed.
+ */
+final class BatchProcessor {
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    // Lines per task: amortizes the Future/queue hand-off over many cheap lines.
+    static final int BLOCK_LINES = 256;
+
+    // Sentinel queued by the reader after the last block.
+    private static final Future<Block> END = CompletableFuture.completedFuture(null);
+
+    private final NumberRangeSummarizer summarizer;
+    private final int threads;
+    private final int queueDepth;
+    private final SummaryCache cache;
+
+    /**
+     * Single-threaded batch processing.
+     */
+    BatchProcessor(final NumberRangeSummarizer summarizer) {
+        this(summarizer, 1, 1);
+    }
+
+    /**
+     * @param threads    worker threads; 1 processes lines on the calling thread
+     * @param queueDepth blocks of BLOCK_LINES lines allowed in flight (the reorder window)
+     */
+    BatchProcessor(final NumberRangeSummarizer summarizer, final int threads, final int queueDepth) {
+        this(summarizer, threads, queueDepth, null);
+    }
+
+    /**
+     * @param cache summaries of lines seen before, or null to summarize every line
+     */
+    BatchProcessor(final NumberRangeSummarizer summarizer, final int threads, final int queueDepth,
+                   final SummaryCache cache) {
+        if (threads < 1 || queueDepth < 1) {
+            throw new IllegalArgumentException("threads and queueDepth must be at least 1");
+        }
+        this.summarizer = summarizer;
+        this.threads = threads;
+        this.queueDepth = queueDepth;
+        this.cache = cache;
+    }
+
+    /**
+     * Process every line of in and write the results to out (UTF-8). Flushes out once at the end.
+     *
+     * @return number of lines processed
+     */
+    long run(final InputStream in, final OutputStream out) throws IOException {
+        final Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        // Runs are rendered as bytes straight into this writer's buffer; see processLine.
+        final Writer writer = new RunByteWriter(out, null, BUFFER_SIZE);
+        final long lines = run(reader, writer);
+        writer.flush();
+        return lines;
+    }
+
+    /**
+     * Same as run(InputStream, OutputStream) on character streams. Does not flush out.
+     */
+    long run(final Reader in, final Writer out) throws IOException {
+        final BufferedReader reader = (in instanceof BufferedReader)
+                ? (BufferedReader) in
+                : new BufferedReader(in, BUFFER_SIZE);
+        return (threads == 1) ? runSequential(reader, out) : runPipelined(reader, out);
+    }
+
+    private long runSequential(final BufferedReader reader, final Writer out) throws IOException {
+        final String newline = System.lineSeparator();
+        long lines = 0;
+        for (String line; (line = reader.readLine()) != null; ) {
+            processLine(line, out);
+            out.write(newline);
+            lines++;
+        }
+        return lines;
+    }
+
+    private long runPipelined(final BufferedReader reader, final Writer out) throws IOException {
+        final BlockingQueue<Future<Block>> inFlight = new ArrayBlockingQueue<>(queueDepth);
+        final ExecutorService workers = Executors.newFixedThreadPool(threads, daemonThreads("batch-worker"));
+        final Thread readerThread = daemonThreads("batch-reader")
+                .newThread(() -> readBlocks(reader, workers, inFlight));
+        readerThread.start();
+
+        long lines = 0;
+        try {
+            for (Future<Block> next = inFlight.take(); next != END; next = inFlight.take()) {
+                final Block block = next.get();
+                out.write(block.text);
+                lines += block.lines;
+            }
+            return lines;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("batch interrupted after " + lines + " lines");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            // Normal end: both are idle already. Writer failure: stop reading and working.
+            readerThread.interrupt();
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Reader side of the pipeline. Blocks on the queue when queueDepth blocks are in flight.
+     */
+    private void readBlocks(final BufferedReader reader, final ExecutorService workers,
+                            final BlockingQueue<Future<Block>> inFlight) {
+        try {
+            try {
+                String[] lines = new String[BLOCK_LINES];
+                int n = 0;
+                for (String line; (line = reader.readLine()) != null; ) {
+                    lines[n++] = line;
+                    if (n == BLOCK_LINES) {
+                        inFlight.put(submit(workers, lines, n));
+                        lines = new String[BLOCK_LINES];
+                        n = 0;
+                    }
+                }
+                if (n > 0) {
+                    inFlight.put(submit(workers, lines, n));
+                }
+                inFlight.put(END);
+            } catch (IOException e) {
+                final CompletableFuture<Block> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                inFlight.put(failed);
+            }
+        } catch (InterruptedException e) {
+            // The writer gave up; nobody is waiting for more blocks.
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Future<Block> submit(final ExecutorService workers, final String[] lines, final int n) {
+        return workers.submit(() -> {
+            final String newline = System.lineSeparator();
+            final StringBuilder text = new StringBuilder(n * 16);
+            for (int i = 0; i < n; i++) {
+                processLine(lines[i], text);
+                text.append(newline);
+            }
+            return new Block(n, text.toString());
+        });
+    }
+
+    private static ThreadFactory daemonThreads(final String prefix) {
+        final AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            final Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Append the output line (without line terminator) for one input line. The summary is
+     * rendered straight into out, so no String is built per line. Safe to call from
+     * several threads (with separate outs) as long as the summarizer is.
+     */
+    void processLine(final String line, final Appendable out) throws IOException {
+        final int[] values;
+        try {
+            if (cache != null) {
+                // Hits skip parsing entirely; a miss renders to a String once so it can be kept.
+                final boolean[] missed = {false};
+                final String summary = cache.summarize(line, text -> {
+                    missed[0] = true;
+                    return summarizer.summarize(summarizer.collectInts(text));
+                });
+                if (!missed[0]) {
+                    InstrumentedRangeSummarizer.recordCacheHit(summarizer);
+                }
+                out.append("Result: ").append(summary);
+                return;
+            }
+            // Parse first: a bad token must not leave half a Result line behind.
+            values = summarizer.collectInts(line);
+        } catch (NumberFormatException e) {
+            out.append("Error: ").append(e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            // Keep this broad so one bad line never takes the whole batch down.
+            out.append("Unexpected error: ").append(String.valueOf(e.getMessage()));
+            return;
+        }
+        out.append("Result: ");
+        summarizer.summarizeTo(IntSequence.of(values), out);
+    }
+
+    /**
+     * Rendered output of one block of input lines.
+     */
+    private static final class Block {
+        final int lines;
+        final String text;
+
+        Block(final int lines, final String text) {
+            this.lines = lines;
+            this.text = text;
+        }
+    }
+}
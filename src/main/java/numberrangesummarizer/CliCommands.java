@@ -0,0 +1,274 @@
+package numberrangesummarizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The CLI's --file, --batch and --serve modes (see NumberRangeSummarizerCLI for the options).
+ *
+ * Kept out of NumberRangeSummarizerCLI so that a one-shot run never loads (or verifies
+ * against) the server, batch pipeline, cache and metrics classes it does not use.
+ */
+final class CliCommands {
+
+    private final NumberRangeSummarizer summarizer;
+    private final boolean sorted;
+
+    CliCommands(NumberRangeSummarizer summarizer, boolean sorted) {
+        this.summarizer = summarizer;
+        this.sorted = sorted;
+    }
+
+    /**
+     * Streams a CSV file through StreamingRangeSummarizer straight to stdout.
+     * Runs are printed as they close, so memory stays constant however big the file is.
+     * That also means a bad token part-way comes after some runs are already out: the
+     * Result line then ends in " (incomplete)" (just "(incomplete)" if no run made it)
+     * instead of passing for a whole summary, and the error goes to stderr.
+     * With --sorted the values stream into an IntBitmap instead, and the Result line is
+     * only printed once the whole file has been read, so a failure prints none.
+     *
+     * @return false on any error, so the CLI can exit with a non-zero status
+     */
+    boolean processFileAndPrint(String path) {
+        Path file = Paths.get(path);
+        if (!Files.isReadable(file)) {
+            System.err.println("Error: cannot read " + path);
+            return false;
+        }
+        Writer out = new RunByteWriter(System.out);
+        StreamingRangeSummarizer streaming = new StreamingRangeSummarizer(out);
+        boolean started = false;
+        try {
+            if (sorted) {
+                IntBitmap bitmap = new IntBitmap();
+                MappedCsvReader.forEach(file, bitmap);
+                out.write("Result: ");
+                bitmap.renderTo(out);
+            } else {
+                out.write("Result: ");
+                started = true;
+                MappedCsvReader.forEach(file, streaming);
+                streaming.flush();
+            }
+            out.write(System.lineSeparator());
+            out.flush();
+            return true;
+        } catch (NumberFormatException e) {
+            markIncomplete(out, started, streaming);
+            System.err.println("Error: " + e.getMessage());
+        } catch (IOException | UncheckedIOException e) {
+            markIncomplete(out, started, streaming);
+            System.err.println("Error: cannot read " + path + ": " + e.getMessage());
+        } catch (Exception e) {
+            markIncomplete(out, started, streaming);
+            System.err.println("Unexpected error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Runs BatchProcessor over stdin, or over the file when a path is given.
+     * Lines that fail to parse are answered with an "Error: …" line and do not count as a failure.
+     *
+     * @return false on bad options or when the input cannot be read, so the CLI can exit
+     *         with a non-zero status
+     */
+    boolean processBatch(String[] options) {
+        String path = null;
+        int threads = 1;
+        int queueDepth = -1;
+        long cacheBytes = 0;
+        SummarizerMetrics metrics = null;
+        try {
+            for (int i = 0; i < options.length; i++) {
+                if ("--threads".equals(options[i]) && i + 1 < options.length) {
+                    threads = Integer.parseInt(options[++i]);
+                } else if ("--queue-depth".equals(options[i]) && i + 1 < options.length) {
+                    queueDepth = Integer.parseInt(options[++i]);
+                } else if ("--cache-bytes".equals(options[i]) && i + 1 < options.length) {
+                    cacheBytes = parseBytes(options[++i]);
+                } else if ("--metrics".equals(options[i])) {
+                    metrics = new SummarizerMetrics();
+                } else if (path == null && !options[i].startsWith("--")) {
+                    path = options[i];
+                } else {
+                    System.err.println("Error: unexpected batch option '" + options[i] + "'");
+                    return false;
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Error: --threads, --queue-depth and --cache-bytes need a number");
+            return false;
+        }
+        if (threads < 1 || queueDepth == 0 || queueDepth < -1) {
+            System.err.println("Error: --threads must be at least 1 and --queue-depth at least 1");
+            return false;
+        }
+
+        SummaryCache cache = newCache(cacheBytes);
+        if (cacheBytes > 0 && cache == null) {
+            return false;
+        }
+
+        // Default reorder window: a few blocks per worker keeps everyone busy.
+        BatchProcessor batch = new BatchProcessor(instrumented(metrics), threads,
+                queueDepth == -1 ? threads * 4 : queueDepth, cache);
+        boolean ok = true;
+        try {
+            if (path == null) {
+                batch.run(System.in, System.out);
+            } else {
+                try (InputStream in = Files.newInputStream(Paths.get(path))) {
+                    batch.run(in, System.out);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error: batch input failed: " + e.getMessage());
+            ok = false;
+        }
+        if (cache != null) {
+            System.err.println(cache);
+        }
+        if (metrics != null) {
+            System.err.print(metrics.snapshot());
+        }
+        return ok;
+    }
+
+    /**
+     * Starts SummaryServer on all interfaces and blocks until the process is stopped.
+     *
+     * @return false on bad options or when the port cannot be bound, so the CLI can exit
+     *         with a non-zero status
+     */
+    boolean serve(String[] options) {
+        int port = -1;
+        int threads = -1;
+        boolean virtual = false;
+        long cacheBytes = 0;
+        SummarizerMetrics metrics = null;
+        try {
+            for (int i = 0; i < options.length; i++) {
+                if ("--threads".equals(options[i]) && i + 1 < options.length) {
+                    threads = Integer.parseInt(options[++i]);
+                } else if ("--cache-bytes".equals(options[i]) && i + 1 < options.length) {
+                    cacheBytes = parseBytes(options[++i]);
+                } else if ("--metrics".equals(options[i])) {
+                    metrics = new SummarizerMetrics();
+                } else if ("--virtual".equals(options[i])) {
+                    virtual = true;
+                } else if (port == -1 && !options[i].startsWith("--")) {
+                    port = Integer.parseInt(options[i]);
+                } else {
+                    System.err.println("Error: unexpected serve option '" + options[i] + "'");
+                    return false;
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Error: port, --threads and --cache-bytes need a number");
+            return false;
+        }
+        if (port < 0 || port > 65535 || threads == 0 || threads < -1 || (virtual && threads != -1)) {
+            System.err.println("Error: usage --serve port [--threads N | --virtual] [--cache-bytes B] [--metrics]");
+            return false;
+        }
+        if (virtual && !SummaryServer.supportsVirtualThreads()) {
+            System.err.println("Error: --virtual needs JDK 21 or later");
+            return false;
+        }
+
+        SummaryCache cache = newCache(cacheBytes);
+        if (cacheBytes > 0 && cache == null) {
+            return false;
+        }
+
+        // Handlers mostly wait on sockets, so the default pool is a few threads per core.
+        if (threads == -1) {
+            threads = Math.max(32, Runtime.getRuntime().availableProcessors() * 4);
+        }
+        ExecutorService executor = virtual ? SummaryServer.virtualThreads() : SummaryServer.fixedPool(threads);
+        try {
+            if (metrics != null) {
+                metrics.register("server");
+            }
+            SummaryServer server = new SummaryServer(instrumented(metrics), new InetSocketAddress(port), executor, cache);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            System.out.println("Listening on port " + server.port()
+                    + (virtual ? " (virtual threads)" : ""));
+            Thread.currentThread().join();
+        } catch (IOException e) {
+            executor.shutdown();
+            System.err.println("Error: cannot listen on port " + port + ": " + e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    /**
+     * The CLI's summarizer, wrapped to record into metrics when --metrics was given.
+     */
+    private NumberRangeSummarizer instrumented(SummarizerMetrics metrics) {
+        return metrics == null ? summarizer : new InstrumentedRangeSummarizer(summarizer, metrics);
+    }
+
+    /**
+     * Parses a byte count with an optional k/m/g suffix (binary units), e.g. "64m".
+     */
+    static long parseBytes(String text) {
+        String t = text.trim().toLowerCase();
+        int shift = 0;
+        if (t.endsWith("k")) {
+            shift = 10;
+        } else if (t.endsWith("m")) {
+            shift = 20;
+        } else if (t.endsWith("g")) {
+            shift = 30;
+        }
+        long value = Long.parseLong(shift == 0 ? t : t.substring(0, t.length() - 1));
+        if (value < 0 || value > (Long.MAX_VALUE >> shift)) {
+            throw new NumberFormatException("bad byte count '" + text + "'");
+        }
+        return value << shift;
+    }
+
+    /**
+     * Cache for --cache-bytes, or null when caching is off or the size is unusable
+     * (after printing why).
+     */
+    private static SummaryCache newCache(long cacheBytes) {
+        if (cacheBytes <= 0) {
+            return null;
+        }
+        try {
+            return new SummaryCache(cacheBytes);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: --cache-bytes " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * End a Result line cut short by an error so it cannot be mistaken for a whole summary.
+     */
+    private static void markIncomplete(Writer out, boolean started, StreamingRangeSummarizer streaming) {
+        try {
+            if (started) {
+                out.write(streaming.wroteRun() ? " (incomplete)" : "(incomplete)");
+                out.write(System.lineSeparator());
+            }
+            out.flush();
+        } catch (IOException ignored) {
+            // stdout is gone; nothing useful left to do
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package numberrangesummarizer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Single-pass CSV integer scanner.
+ *
+ * Behaves exactly like the old split(",") → trim() → Integer.valueOf pipeline:
+ * - empty tokens (",,", trailing commas, whitespace only) are skipped
+ * - whitespace around a token is ignored (same "&lt;= ' '" rule as String.trim)
+ * - an optional leading '+' or '-' is accepted
+ * - anything else, including overflow, fails with "Invalid integer token"
+ *
+ * The difference is that digits are accumulated straight from the characters
+ * into an IntArrayBuilder: no String per token, no regex, no stream, no boxing.
+ */
+final class CsvIntParser {
+
+    // Chars read per step when parsing from a Reader.
+    static final int STREAM_CHUNK = 1 << 16;
+
+    // Longest token a Reader may send before its comma, whitespace around it not counted.
+    // A valid int is a sign plus ten digits; the rest is room for non-ASCII digits.
+    static final int MAX_STREAM_TOKEN = 4096;
+
+    private CsvIntParser() {
+    }
+
+    /**
+     * Parse the whole input. Null yields no values.
+     */
+    static IntArrayBuilder parse(final CharSequence input) {
+        if (input == null) {
+            return new IntArrayBuilder();
+        }
+        final IntArrayBuilder out = new IntArrayBuilder(estimateCount(input.length()));
+        parse(input, 0, input.length(), out);
+        return out;
+    }
+
+    /**
+     * Parse a char[] slice. Positions in error messages are relative to the array start.
+     */
+    static void parse(final char[] input, final int from, final int to, final IntArrayBuilder out) {
+        parse(CharBuffer.wrap(input), from, to, out);
+    }
+
+    /**
+     * Parse everything in from a Reader, handing each value to sink in order, in constant
+     * memory: chunks are parsed up to their last comma and the unfinished token is carried
+     * into the next chunk. Positions in error messages count from the start of the stream.
+     *
+     * A chunk with no comma at all is one token plus whitespace. The whitespace is not
+     * kept: a token is parsed as soon as only whitespace follows it, and its value is
+     * handed on once the comma (or the end) confirms nothing else does. A token longer
+     * than MAX_STREAM_TOKEN fails at once, so no input buffers more than a chunk.
+     */
+    static void parse(final Reader in, final IntConsumer sink) throws IOException {
+        parse(in, new SummarySink() {
+            @Override
+            public void accept(final int value) {
+                sink.accept(value);
+            }
+
+            @Override
+            public void finish() {
+            }
+        });
+    }
+
+    /**
+     * Same, handing the values of each chunk to sink as one slice. Does not finish sink.
+     */
+    static void parse(final Reader in, final SummarySink sink) throws IOException {
+        final Window window = new Window(STREAM_CHUNK);
+        final IntArrayBuilder values = new IntArrayBuilder(STREAM_CHUNK / 2);
+        // Token already parsed into values while its comma is still to come (null if none).
+        String padded = null;
+        int paddedAt = 0;
+        for (int n; (n = in.read(window.buf, window.filled, window.buf.length - window.filled)) >= 0; ) {
+            window.filled += n;
+            if (padded != null) {
+                int i = window.skipBlanks(0);
+                if (i == window.filled) {
+                    window.shift(i);
+                    continue;
+                }
+                if (window.buf[i] != ',') {
+                    int end = i;
+                    while (end < window.filled && window.buf[end] != ',' && end - i < MAX_STREAM_TOKEN) {
+                        end++;
+                    }
+                    throw invalid(padded + " " + new String(window.buf, i, end - i).trim(), paddedAt);
+                }
+                drain(values, sink);
+                window.shift(i + 1);
+                padded = null;
+            }
+            int cut = window.filled - 1;
+            while (cut >= 0 && window.buf[cut] != ',') {
+                cut--;
+            }
+            if (cut < 0) {
+                if (window.filled < window.buf.length) {
+                    continue;
+                }
+                // No comma in a whole chunk: drop the whitespace before the token...
+                window.shift(window.skipBlanks(0));
+                int length = window.filled;
+                while (length > 0 && window.buf[length - 1] <= ' ') {
+                    length--;
+                }
+                if (length > MAX_STREAM_TOKEN) {
+                    throw invalid(new String(window.buf, 0, MAX_STREAM_TOKEN).trim() + "…", window.base);
+                }
+                if (length > 0 && length < window.filled) {
+                    // ...and after it, once the token is known to be complete.
+                    padded = new String(window.buf, 0, length);
+                    paddedAt = window.base;
+                    parse(window, window.base, window.base + length, values);
+                    window.shift(window.filled);
+                }
+                continue;
+            }
+            parse(window, window.base, window.base + cut, values);
+            drain(values, sink);
+            window.shift(cut + 1);
+        }
+        parse(window, window.base, window.base + window.filled, values);
+        drain(values, sink);
+    }
+
+    private static void drain(final IntArrayBuilder values, final SummarySink sink) {
+        values.pushTo(sink);
+        values.clear();
+    }
+
+    /**
+     * Parse input[from, to) and append every value to out, in order.
+     *
+     * The range is expected to start and end on token boundaries (start of input,
+     * end of input, or next to a comma); the parallel parser relies on that.
+     *
+     * @throws NumberFormatException on the first invalid token, reporting its position
+     */
+    static void parse(final CharSequence input, final int from, final int to, final IntArrayBuilder out) {
+        scan(input, from, to, Integer.MAX_VALUE, value -> out.add((int) value));
+    }
+
+    /**
+     * The token loop behind every parse: same rules, for values in [-max - 1, max]
+     * (Integer.MAX_VALUE for ints, Long.MAX_VALUE for CsvLongParser).
+     *
+     * @throws NumberFormatException on the first invalid token, reporting its position
+     */
+    static void scan(final CharSequence input, final int from, final int to, final long max,
+                     final LongConsumer out) {
+        int i = from;
+        while (i < to) {
+            char c = input.charAt(i);
+
+            // Leading whitespace and empty tokens.
+            if (c <= ' ') {
+                i++;
+                continue;
+            }
+            if (c == ',') {
+                i++;
+                continue;
+            }
+
+            final int tokenStart = i;
+            boolean negative = false;
+            if (c == '-' || c == '+') {
+                negative = (c == '-');
+                i++;
+            }
+
+            // Accumulate negatively so the minimum fits (same trick as Integer.parseInt).
+            final long limit = negative ? -max - 1 : -max;
+            final long multMin = limit / 10;
+            long result = 0;
+            int digits = 0;
+            boolean ok = true;
+            while (i < to) {
+                c = input.charAt(i);
+                final int d = c - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                if (result < multMin) {
+                    ok = false;
+                    break;
+                }
+                result *= 10;
+                if (result < limit + d) {
+                    ok = false;
+                    break;
+                }
+                result -= d;
+                digits++;
+                i++;
+            }
+
+            // Trailing whitespace, then the token must end at a comma or the end of input.
+            if (ok && digits > 0) {
+                while (i < to && input.charAt(i) <= ' ') {
+                    i++;
+                }
+                if (i == to || input.charAt(i) == ',') {
+                    out.accept(negative ? result : -result);
+                    continue;
+                }
+            }
+
+            i = slowToken(input, tokenStart, to, max, out);
+        }
+    }
+
+    /**
+     * Anything the fast path did not accept lands here: overflow, stray characters,
+     * or non-ASCII digits that Long.parseLong (like Integer.parseInt) would still take.
+     *
+     * @return index just past the token
+     */
+    private static int slowToken(final CharSequence input, final int tokenStart, final int to, final long max,
+                                 final LongConsumer out) {
+        int end = tokenStart;
+        while (end < to && input.charAt(end) != ',') {
+            end++;
+        }
+        final String token = input.subSequence(tokenStart, end).toString().trim();
+        final long value;
+        try {
+            value = Long.parseLong(token);
+        } catch (NumberFormatException e) {
+            throw invalid(token, tokenStart);
+        }
+        if (value > max || value < -max - 1) {
+            throw invalid(token, tokenStart);
+        }
+        out.accept(value);
+        return end;
+    }
+
+    private static NumberFormatException invalid(final String token, final int position) {
+        return new NumberFormatException("Invalid integer token: '" + token + "' at position " + position);
+    }
+
+    /**
+     * The current chunk of a stream, addressed by absolute stream position so that the
+     * scanner (and its error messages) see one long CharSequence: index i is buf[i - base].
+     */
+    private static final class Window implements CharSequence {
+        final char[] buf;
+        int base;
+        int filled;
+
+        Window(final int capacity) {
+            buf = new char[capacity];
+        }
+
+        /**
+         * Drop the first count chars; they are behind the scanner for good.
+         */
+        void shift(final int count) {
+            System.arraycopy(buf, count, buf, 0, filled - count);
+            filled -= count;
+            base += count;
+        }
+
+        /**
+         * Index of the first char at or after from (relative to buf) that is not whitespace.
+         */
+        int skipBlanks(final int from) {
+            int i = from;
+            while (i < filled && buf[i] <= ' ') {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public int length() {
+            return base + filled;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return buf[index - base];
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return new String(buf, start - base, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buf, 0, filled);
+        }
+    }
+
+    /**
+     * Cheap initial capacity guess ("1," is the densest possible CSV) without over-reserving
+     * memory for huge inputs; IntArrayBuilder grows from there.
+     */
+    static int estimateCount(final int chars) {
+        return Math.min(chars / 2 + 1, 1 << 16);
+    }
+}
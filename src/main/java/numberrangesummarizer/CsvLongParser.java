@@ -0,0 +1,56 @@
+package numberrangesummarizer;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * CsvIntParser's rules for 64-bit values: empty tokens are skipped, whitespace around a
+ * token is ignored, an optional '+' or '-' is accepted, and anything else (including
+ * values outside the long range) fails with "Invalid integer token".
+ *
+ * The scanning is CsvIntParser.scan with the long range as its limit; this class only
+ * collects the values.
+ */
+final class CsvLongParser {
+
+    private CsvLongParser() {
+    }
+
+    /**
+     * Parse the whole input in order. Null or blank input yields an empty array.
+     *
+     * @throws NumberFormatException on the first invalid token, reporting its position
+     */
+    static long[] parse(final CharSequence input) {
+        if (input == null) {
+            return new long[0];
+        }
+        final LongValues out = new LongValues(CsvIntParser.estimateCount(input.length()));
+        CsvIntParser.scan(input, 0, input.length(), Long.MAX_VALUE, out);
+        return out.toArray();
+    }
+
+    /**
+     * Growable long[]; the 64-bit counterpart of IntArrayBuilder, for this parser only.
+     */
+    private static final class LongValues implements LongConsumer {
+        private long[] values;
+        private int size;
+
+        LongValues(final int initialCapacity) {
+            values = new long[Math.max(initialCapacity, 1)];
+        }
+
+        @Override
+        public void accept(final long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return (size == values.length) ? values : Arrays.copyOf(values, size);
+        }
+    }
+}
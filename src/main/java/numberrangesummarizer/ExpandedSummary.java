@@ -0,0 +1,202 @@
+package numberrangesummarizer;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The inverse of summarizing: a summary such as "1-4, 6-2" viewed as the sequence
+ * it stands for (1,2,3,4,6,5,4,3,2), without ever materialising that sequence.
+ *
+ * Only the runs are stored, in a RunIndex (two ints and one cumulative count each), so
+ * "1-2000000000" costs a few bytes, iterates in constant memory and answers get(position)
+ * with a binary search over the run boundaries.
+ *
+ * Positions and sizes are longs because a handful of wide runs easily exceed 2^31 values.
+ * Runs are read as plain numeric ranges, so the one run the summarizer builds by int
+ * wrap-around (2147483647 followed by -2147483648) expands to every int in between,
+ * not back to its two inputs. Immutable and safe to share between threads.
+ */
+public final class ExpandedSummary {
+
+    private final RunIndex index;
+
+    private ExpandedSummary(final RunIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Expand summary text as produced by summarizeCollection.
+     *
+     * @throws NumberFormatException if the text is not a valid summary
+     */
+    public static ExpandedSummary expand(final CharSequence summary) {
+        return new ExpandedSummary(RunIndex.parse(summary));
+    }
+
+    /**
+     * Expand a run list (e.g. from RunCodec.decode).
+     */
+    public static ExpandedSummary of(final List<Run> runs) {
+        return new ExpandedSummary(RunIndex.of(runs));
+    }
+
+    /**
+     * The positional index behind this view (value lookups, range counts).
+     */
+    public RunIndex index() {
+        return index;
+    }
+
+    /**
+     * Number of values in the expanded sequence.
+     */
+    public long size() {
+        return index.size();
+    }
+
+    /**
+     * Number of runs in the summary.
+     */
+    public int runCount() {
+        return index.runCount();
+    }
+
+    /**
+     * Value at position, in O(log runs).
+     *
+     * @throws IndexOutOfBoundsException if position is outside [0, size())
+     */
+    public int get(final long position) {
+        return index.valueAt(position);
+    }
+
+    /**
+     * Lazy iterator over the whole expanded sequence.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new Values(0, size());
+    }
+
+    /**
+     * Lazy iterator starting at position (O(log runs) to position, then O(1) per value).
+     */
+    public PrimitiveIterator.OfInt iterator(final long position) {
+        if (position < 0 || position > size()) {
+            throw new IndexOutOfBoundsException("position " + position + " out of bounds for size " + size());
+        }
+        return new Values(position, size());
+    }
+
+    /**
+     * Lazy, sized, splittable stream over the expanded sequence.
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(new Values(0, size()), false);
+    }
+
+    /**
+     * Walks positions [pos, end) run by run. Serves as both the iterator and the
+     * stream's spliterator (split by position, relocated with a binary search).
+     */
+    private final class Values implements PrimitiveIterator.OfInt, Spliterator.OfInt {
+        private long pos;
+        private final long end;
+        private int run;
+        private long offset;
+
+        Values(final long pos, final long end) {
+            this.pos = pos;
+            this.end = end;
+            if (pos < end) {
+                run = index.runContaining(pos);
+                offset = pos - index.start(run);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pos < end;
+        }
+
+        @Override
+        public int nextInt() {
+            if (pos >= end) {
+                throw new NoSuchElementException();
+            }
+            final int value = index.valueIn(run, offset);
+            pos++;
+            if (pos < end && pos == index.end(run)) {
+                run++;
+                offset = 0;
+            } else {
+                offset++;
+            }
+            return value;
+        }
+
+        @Override
+        public boolean tryAdvance(final IntConsumer action) {
+            if (pos >= end) {
+                return false;
+            }
+            action.accept(nextInt());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final IntConsumer action) {
+            // Whole runs at a time: a tight counted loop per run instead of per-value bookkeeping.
+            while (pos < end) {
+                final long count = Math.min(index.end(run), end) - pos;
+                final int first = index.valueIn(run, offset);
+                final int step = index.step(run);
+                int v = first;
+                for (long k = 0; k < count; k++) {
+                    action.accept(v);
+                    v += step;
+                }
+                pos += count;
+                run++;
+                offset = 0;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super Integer> action) {
+            if (action instanceof IntConsumer) {
+                forEachRemaining((IntConsumer) action);
+            } else {
+                forEachRemaining((IntConsumer) action::accept);
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            final long mid = (pos + end) >>> 1;
+            if (mid - pos < 1024) {
+                return null;
+            }
+            final Values prefix = new Values(pos, mid);
+            pos = mid;
+            run = index.runContaining(mid);
+            offset = mid - index.start(run);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - pos;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
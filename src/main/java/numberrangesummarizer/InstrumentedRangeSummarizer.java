@@ -0,0 +1,213 @@
+package numberrangesummarizer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Opt-in instrumentation around any NumberRangeSummarizer: records calls, elements,
+ * runs, parse failures, per-phase latency and run lengths into a SummarizerMetrics.
+ *
+ * Results are exactly the delegate's. For delegates that can detect runs on their own
+ * (NumberRangeSummarizerImpl, ParallelRangeSummarizer, SortedRangeSummarizer) detection
+ * and rendering are timed separately and the runs are measured, streamed or not; for any
+ * other delegate the whole summarize call is recorded as the toRuns phase and run
+ * lengths are not known.
+ *
+ * When the metrics are disabled every call goes straight to the delegate after a single
+ * volatile read. Thread-safe if the delegate is.
+ */
+public final class InstrumentedRangeSummarizer implements NumberRangeSummarizer {
+
+    private final NumberRangeSummarizer delegate;
+    private final RunSource runSource;
+    private final SummarizerMetrics metrics;
+
+    public InstrumentedRangeSummarizer(final NumberRangeSummarizer delegate, final SummarizerMetrics metrics) {
+        if (delegate == null || metrics == null) {
+            throw new IllegalArgumentException("delegate and metrics must not be null");
+        }
+        this.delegate = delegate;
+        this.runSource = (delegate instanceof RunSource) ? (RunSource) delegate : null;
+        this.metrics = metrics;
+    }
+
+    public SummarizerMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public Collection<Integer> collect(final String input) {
+        if (!metrics.isEnabled()) {
+            return delegate.collect(input);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Collection<Integer> values = delegate.collect(input);
+            metrics.recordPhase(SummarizerMetrics.Phase.COLLECT, System.nanoTime() - start);
+            metrics.recordParsed(values.size());
+            return values;
+        } catch (NumberFormatException e) {
+            metrics.recordParseFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public int[] collectInts(final CharSequence input) {
+        if (!metrics.isEnabled()) {
+            return delegate.collectInts(input);
+        }
+        final long start = System.nanoTime();
+        try {
+            final int[] values = delegate.collectInts(input);
+            metrics.recordPhase(SummarizerMetrics.Phase.COLLECT, System.nanoTime() - start);
+            metrics.recordParsed(values.length);
+            return values;
+        } catch (NumberFormatException e) {
+            metrics.recordParseFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public String summarizeCollection(final Collection<Integer> input) {
+        if (!metrics.isEnabled()) {
+            return delegate.summarizeCollection(input);
+        }
+        return summarize(NumberRangeSummarizerImpl.toSequence(input));
+    }
+
+    @Override
+    public String summarize(final IntSequence input) {
+        if (!metrics.isEnabled()) {
+            return delegate.summarize(input);
+        }
+        if (runSource == null) {
+            final long start = System.nanoTime();
+            final String summary = delegate.summarize(input);
+            metrics.recordPhase(SummarizerMetrics.Phase.TO_RUNS, System.nanoTime() - start);
+            metrics.recordCall();
+            return summary;
+        }
+        final List<Run> runs = timedRuns(input);
+        final long start = System.nanoTime();
+        final String summary = NumberRangeSummarizerImpl.render(runs);
+        metrics.recordPhase(SummarizerMetrics.Phase.RENDER, System.nanoTime() - start);
+        return summary;
+    }
+
+    @Override
+    public void summarizeTo(final IntSequence input, final Appendable out) {
+        if (!metrics.isEnabled()) {
+            delegate.summarizeTo(input, out);
+            return;
+        }
+        if (runSource == null) {
+            // Goes through summarize(), which records the call.
+            NumberRangeSummarizer.super.summarizeTo(input, out);
+            return;
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        final List<Run> runs = timedRuns(input);
+        final long start = System.nanoTime();
+        try {
+            NumberRangeSummarizerImpl.renderTo(runs, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        metrics.recordPhase(SummarizerMetrics.Phase.RENDER, System.nanoTime() - start);
+    }
+
+    /**
+     * A streamed summary is recorded when finish() ends it. Time between pushes (the caller
+     * parsing) counts as collect, time inside slice pushes (run detection and writing the
+     * runs that closed) as toRuns, and finish() as render. Values pushed one at a time are
+     * not timed on their own, so with those toRuns is folded into collect.
+     */
+    @Override
+    public SummarySink streamTo(final Appendable out) {
+        if (!metrics.isEnabled()) {
+            return delegate.streamTo(out);
+        }
+        return new MeteredSink(out);
+    }
+
+    /**
+     * Count a request answered from a SummaryCache as a call: the delegate never saw it,
+     * but it was served all the same. Does nothing unless summarizer is instrumented.
+     */
+    static void recordCacheHit(final NumberRangeSummarizer summarizer) {
+        if (summarizer instanceof InstrumentedRangeSummarizer) {
+            final SummarizerMetrics metrics = ((InstrumentedRangeSummarizer) summarizer).metrics;
+            if (metrics.isEnabled()) {
+                metrics.recordCall();
+            }
+        }
+    }
+
+    private List<Run> timedRuns(final IntSequence input) {
+        final long start = System.nanoTime();
+        final List<Run> runs = runSource.runs(input);
+        metrics.recordPhase(SummarizerMetrics.Phase.TO_RUNS, System.nanoTime() - start);
+        metrics.recordCall();
+        metrics.recordRuns(runs);
+        return runs;
+    }
+
+    /**
+     * The delegate's sink, with every summary recorded as it finishes (see streamTo).
+     */
+    private final class MeteredSink implements SummarySink, RunDetector.Listener {
+        private final SummarySink target;
+        private SummarizerMetrics.RunTally runs = new SummarizerMetrics.RunTally();
+        private long parsed;
+        private long pushNanos;
+        private long started = System.nanoTime();
+
+        MeteredSink(final Appendable out) {
+            this.target = (runSource != null) ? runSource.streamTo(out, this) : delegate.streamTo(out);
+        }
+
+        @Override
+        public void accept(final int value) {
+            target.accept(value);
+            parsed++;
+        }
+
+        @Override
+        public void accept(final int[] values, final int offset, final int length) {
+            final long start = System.nanoTime();
+            target.accept(values, offset, length);
+            pushNanos += System.nanoTime() - start;
+            parsed += length;
+        }
+
+        @Override
+        public void onRun(final int from, final int to) {
+            runs.onRun(from, to);
+        }
+
+        @Override
+        public void finish() {
+            final long start = System.nanoTime();
+            target.finish();
+            final long end = System.nanoTime();
+            metrics.recordPhase(SummarizerMetrics.Phase.COLLECT, start - started - pushNanos);
+            metrics.recordPhase(SummarizerMetrics.Phase.TO_RUNS, pushNanos);
+            metrics.recordPhase(SummarizerMetrics.Phase.RENDER, end - start);
+            metrics.recordParsed(parsed);
+            metrics.recordCall();
+            if (runSource != null) {
+                metrics.recordRuns(runs);
+            }
+            runs = new SummarizerMetrics.RunTally();
+            parsed = 0;
+            pushNanos = 0;
+            started = end;
+        }
+    }
+}
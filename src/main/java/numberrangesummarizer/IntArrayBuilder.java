@@ -0,0 +1,91 @@
+package numberrangesummarizer;
+
+import java.util.Arrays;
+
+/**
+ * Growable int buffer, the primitive equivalent of an ArrayList<Integer>.
+ *
+ * Used by the parser so tokens go straight from characters into an int[]
+ * without a String or an Integer per value.
+ */
+final class IntArrayBuilder {
+    // Some VMs reserve a few header words in arrays; stay clear of the hard limit.
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] values;
+    private int size;
+
+    IntArrayBuilder() {
+        this(16);
+    }
+
+    IntArrayBuilder(final int initialCapacity) {
+        this.values = new int[Math.max(initialCapacity, 1)];
+    }
+
+    void add(final int value) {
+        if (size == values.length) {
+            grow(size + 1);
+        }
+        values[size++] = value;
+    }
+
+    void addAll(final int[] src, final int offset, final int length) {
+        if (length > values.length - size) {
+            grow(size + length);
+        }
+        System.arraycopy(src, offset, values, size, length);
+        size += length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Exact-length copy of the values added so far.
+     */
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Copy the values into dst starting at offset.
+     *
+     * @return offset just past the last value written
+     */
+    int copyTo(final int[] dst, final int offset) {
+        System.arraycopy(values, 0, dst, offset, size);
+        return offset + size;
+    }
+
+    /**
+     * Zero-copy view over the values added so far. Only valid until the next add().
+     */
+    IntSequence asSequence() {
+        return IntSequence.of(values, 0, size);
+    }
+
+    /**
+     * Push the values added so far to sink as one slice.
+     */
+    void pushTo(final SummarySink sink) {
+        sink.accept(values, 0, size);
+    }
+
+    private void grow(final int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Too many values for a single int[]: " + minCapacity);
+        }
+        final int old = values.length;
+        int next = old + (old >> 1) + 1;
+        if (next < minCapacity || next > MAX_CAPACITY) {
+            next = Math.max(minCapacity, Math.min(next, MAX_CAPACITY));
+        }
+        values = Arrays.copyOf(values, next);
+    }
+}
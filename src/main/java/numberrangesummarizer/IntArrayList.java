@@ -0,0 +1,93 @@
+package numberrangesummarizer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * What collect() returns: a mutable List<Integer> like the ArrayList it always was, but
+ * backed by an exact-length int[] (4 bytes per value, nothing of the parser's spare
+ * capacity kept alive).
+ *
+ * Boxing only happens when a caller reads or writes an element through the List
+ * interface. summarizeCollection() recognises this class and reads the backing array
+ * directly, so collect → summarizeCollection never boxes. add/remove/set/sort all
+ * work; null elements are rejected with NullPointerException, since they could never
+ * be summarized anyway.
+ */
+final class IntArrayList extends AbstractList<Integer> implements RandomAccess {
+    private int[] values;
+    private int size;
+
+    /**
+     * Takes ownership of values; the list starts with all of them.
+     */
+    IntArrayList(final int[] values) {
+        this.values = values;
+        this.size = values.length;
+    }
+
+    /**
+     * The current contents, without copying. Only valid until the list is next modified.
+     */
+    IntSequence sequence() {
+        return IntSequence.of(values, 0, size);
+    }
+
+    @Override
+    public Integer get(final int index) {
+        checkIndex(index, size);
+        return values[index];
+    }
+
+    @Override
+    public Integer set(final int index, final Integer value) {
+        checkIndex(index, size);
+        final int old = values[index];
+        values[index] = value;
+        return old;
+    }
+
+    @Override
+    public void add(final int index, final Integer value) {
+        checkIndex(index, size + 1);
+        final int v = value;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(8, size + (size >> 1)));
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = v;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Integer remove(final int index) {
+        checkIndex(index, size);
+        final int old = values[index];
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * index must be below bound: size to read or replace, size + 1 to insert.
+     */
+    private void checkIndex(final int index, final int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,571 @@
+package numberrangesummarizer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of ints in the style of a roaring bitmap, for summarizing values as a
+ * sorted, de-duplicated set without sorting (or boxing) anything.
+ *
+ * The int range is cut into 65536 chunks by the high 16 bits. Each chunk that holds any
+ * value gets a container for the low 16 bits, in whichever of three forms is smallest:
+ * - array: sorted char[], for up to 4096 scattered values (2 bytes per value);
+ * - bitmap: 1024 longs, one bit per possible value (fixed 8 KB);
+ * - runs: sorted (start, length) pairs, for values that form intervals (4 bytes per run).
+ *
+ * Memory is bounded by the value domain, not the input length: a billion values over a
+ * 10^9-wide domain needs at most ~15k bitmap containers (~120 MB), repeats cost nothing,
+ * and contiguous stretches collapse into run containers of a few bytes each (a full
+ * chunk becomes a single run as soon as it fills up).
+ *
+ * Ranges come out in ascending order straight from the containers: runs are read off
+ * directly, bitmaps a word at a time, and a range that crosses a chunk boundary is joined
+ * back together.
+ *
+ * Not thread-safe.
+ */
+public final class IntBitmap implements IntConsumer {
+
+    // Values per container (low 16 bits).
+    private static final int CHUNK = 1 << 16;
+
+    // Keys are the high 16 bits with the sign flipped, so unsigned key order is signed int order.
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    // Index of the container used by the last add(); input with locality skips the search.
+    private int last = -1;
+
+    /**
+     * Add value to the set (no-op if it is already there).
+     */
+    public void add(final int value) {
+        final char key = key(value);
+        int i = last;
+        if (i < 0 || keys[i] != key) {
+            i = indexOf(key);
+            if (i < 0) {
+                i = -i - 1;
+                insertContainer(i, key);
+            }
+            last = i;
+        }
+        containers[i] = containers[i].add((char) value);
+    }
+
+    /**
+     * Same as add(value), so a bitmap can be fed by anything that pushes ints
+     * (CsvIntParser, MappedCsvReader).
+     */
+    @Override
+    public void accept(final int value) {
+        add(value);
+    }
+
+    public boolean contains(final int value) {
+        final int i = indexOf(key(value));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    /**
+     * Number of distinct values in the set (up to 2^32).
+     */
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Rough bytes held by the containers and the key index.
+     */
+    public long sizeInBytes() {
+        long total = 6L * keys.length;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].bytes();
+        }
+        return total;
+    }
+
+    /**
+     * Convert every container to its smallest form (e.g. bitmaps made mostly of long
+     * stretches into run containers). Worth calling before keeping a bitmap around.
+     */
+    public void optimize() {
+        for (int i = 0; i < size; i++) {
+            containers[i] = containers[i].optimize();
+        }
+    }
+
+    /**
+     * The maximal ascending ranges of the set, e.g. {1, 2, 3, 5} gives 1-3, 5.
+     */
+    public List<Run> ranges() {
+        final List<Run> ranges = new ArrayList<>();
+        forEachRange((a, b) -> ranges.add(new Run(a, b)));
+        return ranges;
+    }
+
+    /**
+     * Write the ranges as "a-b, c, ..." to out, without building them as objects first.
+     */
+    public void renderTo(final Appendable out) {
+        if (out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        final char[] scratch = new char[RangeRenderer.MAX_RUN_CHARS];
+        final boolean[] first = {true};
+        forEachRange((a, b) -> {
+            try {
+                if (!first[0]) {
+                    out.append(", ");
+                }
+                RangeRenderer.appendRun(out, a, b, scratch);
+                first[0] = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * The summary text, e.g. "1-3, 5".
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        renderTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Hand each maximal range to listener in ascending order. Ranges that continue across
+     * a chunk boundary are reported once.
+     */
+    void forEachRange(final RunDetector.Listener listener) {
+        final Joiner joiner = new Joiner(listener);
+        for (int i = 0; i < size; i++) {
+            joiner.base = (keys[i] ^ 0x8000) << 16;
+            containers[i].forEachRange(joiner);
+        }
+        joiner.finish();
+    }
+
+    private static char key(final int value) {
+        return (char) ((value >>> 16) ^ 0x8000);
+    }
+
+    private int indexOf(final char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertContainer(final int i, final char key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = new ArrayContainer();
+        size++;
+    }
+
+    /**
+     * Receives a container's ranges as low 16-bit values, inclusive.
+     */
+    private interface RangeSink {
+        void range(int first, int last);
+    }
+
+    /**
+     * Turns container-local ranges into int ranges and joins the ones that touch across
+     * a chunk boundary.
+     */
+    private static final class Joiner implements RangeSink {
+        private final RunDetector.Listener listener;
+        int base;
+        private boolean open;
+        private int from;
+        private int to;
+
+        Joiner(final RunDetector.Listener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void range(final int first, final int last) {
+            final int a = base | first;
+            final int b = base | last;
+            if (open && to != Integer.MAX_VALUE && a == to + 1) {
+                to = b;
+                return;
+            }
+            finish();
+            open = true;
+            from = a;
+            to = b;
+        }
+
+        void finish() {
+            if (open) {
+                listener.onRun(from, to);
+                open = false;
+            }
+        }
+    }
+
+    /**
+     * One chunk's low 16 bits. add() returns the container to keep, which may be a
+     * different form once this one stops being the smallest.
+     */
+    private abstract static class Container {
+        abstract Container add(char low);
+
+        abstract boolean contains(char low);
+
+        abstract int cardinality();
+
+        abstract int bytes();
+
+        abstract void forEachRange(RangeSink sink);
+
+        abstract Container optimize();
+
+        int countRanges() {
+            final int[] count = {0};
+            forEachRange((a, b) -> count[0]++);
+            return count[0];
+        }
+
+        /**
+         * The smallest of the three forms for this content.
+         */
+        Container smallest() {
+            final int ranges = countRanges();
+            final int card = cardinality();
+            final int runBytes = RunContainer.bytesFor(ranges);
+            if (runBytes <= Math.min(ArrayContainer.bytesFor(card), BitmapContainer.BYTES)) {
+                return (this instanceof RunContainer) ? this : RunContainer.from(this, ranges);
+            }
+            if (card <= ArrayContainer.MAX_SIZE) {
+                return (this instanceof ArrayContainer) ? this : ArrayContainer.from(this, card);
+            }
+            return (this instanceof BitmapContainer) ? this : BitmapContainer.from(this);
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        // Beyond this a bitmap (8 KB) is never bigger than the array.
+        static final int MAX_SIZE = 4096;
+
+        private char[] values = new char[4];
+        private int n;
+
+        static int bytesFor(final int card) {
+            return 2 * card;
+        }
+
+        static ArrayContainer from(final Container source, final int card) {
+            final ArrayContainer array = new ArrayContainer();
+            array.values = new char[Math.max(card, 4)];
+            source.forEachRange((a, b) -> {
+                for (int v = a; v <= b; v++) {
+                    array.values[array.n++] = (char) v;
+                }
+            });
+            return array;
+        }
+
+        @Override
+        Container add(final char low) {
+            // Ascending input appends without a search.
+            int i = n;
+            if (n > 0 && values[n - 1] >= low) {
+                i = Arrays.binarySearch(values, 0, n, low);
+                if (i >= 0) {
+                    return this;
+                }
+                i = -i - 1;
+            }
+            if (n == MAX_SIZE) {
+                // Full: move to whichever of runs or bitmap is smaller, then add there.
+                final int ranges = countRanges();
+                final Container bigger = (RunContainer.bytesFor(ranges) < BitmapContainer.BYTES)
+                        ? RunContainer.from(this, ranges) : BitmapContainer.from(this);
+                return bigger.add(low);
+            }
+            if (n == values.length) {
+                values = Arrays.copyOf(values, Math.min(n * 2, MAX_SIZE));
+            }
+            System.arraycopy(values, i, values, i + 1, n - i);
+            values[i] = low;
+            n++;
+            return this;
+        }
+
+        @Override
+        boolean contains(final char low) {
+            return Arrays.binarySearch(values, 0, n, low) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return n;
+        }
+
+        @Override
+        int bytes() {
+            return 16 + 2 * values.length;
+        }
+
+        @Override
+        void forEachRange(final RangeSink sink) {
+            int i = 0;
+            while (i < n) {
+                final int start = values[i];
+                int end = start;
+                while (i + 1 < n && values[i + 1] == end + 1) {
+                    end++;
+                    i++;
+                }
+                sink.range(start, end);
+                i++;
+            }
+        }
+
+        @Override
+        Container optimize() {
+            final Container best = smallest();
+            if (best == this && values.length > n) {
+                values = Arrays.copyOf(values, Math.max(n, 4));
+            }
+            return best;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        static final int BYTES = CHUNK / 8;
+
+        private final long[] words = new long[CHUNK / 64];
+        private int card;
+
+        static BitmapContainer from(final Container source) {
+            final BitmapContainer bitmap = new BitmapContainer();
+            source.forEachRange((a, b) -> {
+                for (int v = a; v <= b; v++) {
+                    bitmap.words[v >>> 6] |= 1L << v;
+                }
+                bitmap.card += b - a + 1;
+            });
+            return bitmap;
+        }
+
+        @Override
+        Container add(final char low) {
+            final long bit = 1L << low;
+            final long word = words[low >>> 6];
+            if ((word & bit) != 0) {
+                return this;
+            }
+            words[low >>> 6] = word | bit;
+            card++;
+            // A full chunk is one run: 4 bytes instead of 8 KB.
+            return (card == CHUNK) ? RunContainer.full() : this;
+        }
+
+        @Override
+        boolean contains(final char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        int bytes() {
+            return 16 + BYTES;
+        }
+
+        @Override
+        void forEachRange(final RangeSink sink) {
+            // A word at a time: skip empty words, then find each run's ends with bit counts.
+            int i = 0;
+            long w = words[0];
+            while (true) {
+                while (w == 0) {
+                    if (++i == words.length) {
+                        return;
+                    }
+                    w = words[i];
+                }
+                final int start = i * 64 + Long.numberOfTrailingZeros(w);
+                // Fill the zeros below start so the word reads as ones up to the run's end.
+                w |= w - 1;
+                while (w == -1L) {
+                    if (++i == words.length) {
+                        sink.range(start, CHUNK - 1);
+                        return;
+                    }
+                    w = words[i];
+                }
+                sink.range(start, i * 64 + Long.numberOfTrailingZeros(~w) - 1);
+                // Clear the run just reported.
+                w &= w + 1;
+            }
+        }
+
+        @Override
+        Container optimize() {
+            return smallest();
+        }
+    }
+
+    private static final class RunContainer extends Container {
+        // Beyond this many runs a bitmap (8 KB) is smaller.
+        static final int MAX_RUNS = BitmapContainer.BYTES / 4;
+
+        // Run k covers [starts[k], starts[k] + lengths[k]]; lengths are stored minus one.
+        private char[] starts;
+        private char[] lengths;
+        private int runs;
+        private int card;
+
+        private RunContainer(final int capacity) {
+            starts = new char[Math.max(capacity, 1)];
+            lengths = new char[Math.max(capacity, 1)];
+        }
+
+        static int bytesFor(final int ranges) {
+            return 4 * ranges;
+        }
+
+        static RunContainer full() {
+            final RunContainer full = new RunContainer(1);
+            full.starts[0] = 0;
+            full.lengths[0] = (char) (CHUNK - 1);
+            full.runs = 1;
+            full.card = CHUNK;
+            return full;
+        }
+
+        static RunContainer from(final Container source, final int ranges) {
+            final RunContainer run = new RunContainer(ranges);
+            source.forEachRange((a, b) -> {
+                run.starts[run.runs] = (char) a;
+                run.lengths[run.runs] = (char) (b - a);
+                run.runs++;
+                run.card += b - a + 1;
+            });
+            return run;
+        }
+
+        @Override
+        Container add(final char low) {
+            // Last run starting at or before low.
+            final int k = floorRun(low);
+            if (k >= 0 && low <= end(k)) {
+                return this;
+            }
+            final boolean extendsPrev = k >= 0 && low == end(k) + 1;
+            final boolean extendsNext = k + 1 < runs && low + 1 == starts[k + 1];
+            card++;
+            if (extendsPrev && extendsNext) {
+                // low closes the gap: merge run k + 1 into run k.
+                lengths[k] = (char) (end(k + 1) - starts[k]);
+                System.arraycopy(starts, k + 2, starts, k + 1, runs - k - 2);
+                System.arraycopy(lengths, k + 2, lengths, k + 1, runs - k - 2);
+                runs--;
+            } else if (extendsPrev) {
+                lengths[k]++;
+            } else if (extendsNext) {
+                starts[k + 1]--;
+                lengths[k + 1]++;
+            } else {
+                if (runs == MAX_RUNS) {
+                    card--;
+                    return BitmapContainer.from(this).add(low);
+                }
+                if (runs == starts.length) {
+                    starts = Arrays.copyOf(starts, Math.min(runs * 2, MAX_RUNS));
+                    lengths = Arrays.copyOf(lengths, starts.length);
+                }
+                System.arraycopy(starts, k + 1, starts, k + 2, runs - k - 1);
+                System.arraycopy(lengths, k + 1, lengths, k + 2, runs - k - 1);
+                starts[k + 1] = low;
+                lengths[k + 1] = 0;
+                runs++;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(final char low) {
+            final int k = floorRun(low);
+            return k >= 0 && low <= end(k);
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        int bytes() {
+            return 32 + 4 * starts.length;
+        }
+
+        @Override
+        void forEachRange(final RangeSink sink) {
+            for (int k = 0; k < runs; k++) {
+                sink.range(starts[k], end(k));
+            }
+        }
+
+        @Override
+        int countRanges() {
+            return runs;
+        }
+
+        @Override
+        Container optimize() {
+            final Container best = smallest();
+            if (best == this && starts.length > runs) {
+                starts = Arrays.copyOf(starts, runs);
+                lengths = Arrays.copyOf(lengths, runs);
+            }
+            return best;
+        }
+
+        private int end(final int k) {
+            return starts[k] + lengths[k];
+        }
+
+        private int floorRun(final char low) {
+            int lo = 0;
+            int hi = runs - 1;
+            while (lo <= hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (starts[mid] <= low) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package numberrangesummarizer;
+
+/**
+ * Read-only, index-addressable view over a sequence of primitive ints.
+ *
+ * This is the primitive counterpart of the List<Integer> the summarizer used to
+ * walk. Implementations must never box: get() hands back a plain int so the
+ * run detection loop stays allocation free.
+ */
+public interface IntSequence {
+
+    /**
+     * @return number of values in the sequence
+     */
+    int size();
+
+    /**
+     * @param index position in [0, size())
+     * @return the value at that position
+     * @throws IndexOutOfBoundsException if index is outside [0, size())
+     */
+    int get(int index);
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Copy the sequence into a fresh array (mostly for callers that need to own the data).
+     */
+    default int[] toArray() {
+        final int[] out = new int[size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = get(i);
+        }
+        return out;
+    }
+
+    /**
+     * Wrap a whole array without copying.
+     */
+    static IntSequence of(final int[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("values must not be null");
+        }
+        return new ArrayIntSequence(values, 0, values.length);
+    }
+
+    /**
+     * Wrap a slice of an array without copying. Later writes to the array are visible.
+     */
+    static IntSequence of(final int[] values, final int offset, final int length) {
+        if (values == null) {
+            throw new IllegalArgumentException("values must not be null");
+        }
+        if (offset < 0 || length < 0 || offset > values.length - length) {
+            throw new IndexOutOfBoundsException(
+                "offset " + offset + ", length " + length + " out of bounds for array of " + values.length);
+        }
+        return new ArrayIntSequence(values, offset, length);
+    }
+}
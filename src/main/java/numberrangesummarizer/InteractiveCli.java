@@ -0,0 +1,53 @@
+package numberrangesummarizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * The CLI's interactive mode: a banner, then one Result line per input line until
+ * 'quit' or end of input.
+ *
+ * Reads lines with a BufferedReader rather than a Scanner (which drags in the regex
+ * engine), and only loads when no arguments were given.
+ */
+final class InteractiveCli {
+
+    private InteractiveCli() {
+    }
+
+    static void run(NumberRangeSummarizerCLI cli) {
+        System.out.println("\n");
+        System.out.println(
+            "╔═══════════════════════════════════════════════════╗");
+        System.out.println(
+            "║     Number Range Summarizer - Interactive Mode    ║");
+        System.out.println(
+            "╚═══════════════════════════════════════════════════╝");
+        System.out.println("Enter comma-delimited numbers (or 'quit' to exit)");
+        System.out.println("Example: 1,3,6,7,8,12,13,14,15");
+        System.out.println();
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        try {
+            while (true) {
+                System.out.print("Input: ");
+                String line = in.readLine();
+                if (line == null) {
+                    break; // EOF (Ctrl+D / Ctrl+Z)
+                }
+                String trimmed = line.trim();
+                if (trimmed.isEmpty()) {
+                    continue; // ignore empty lines to reduce noise
+                }
+                if ("quit".equalsIgnoreCase(trimmed)) {
+                    break;
+                }
+                cli.processAndPrint(trimmed);
+                System.out.println();
+            }
+        } catch (IOException e) {
+            System.err.println("Error: cannot read input: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package numberrangesummarizer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram with power-of-two buckets: bucket b counts values in [2^(b-1), 2^b),
+ * bucket 0 counts zero. Coarse (within 2x), but recording is one LongAdder increment,
+ * which stays cheap when many threads record at once.
+ */
+final class Log2Histogram {
+
+    static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    Log2Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param value a non-negative value (negative values count as 0)
+     */
+    void record(final long value) {
+        final long v = Math.max(0, value);
+        buckets[bucket(v)].increment();
+        count.increment();
+        sum.add(v);
+    }
+
+    /**
+     * Record many pre-bucketed values at once (see bucket()): one add per non-empty bucket.
+     */
+    void recordBuckets(final long[] counts, final long total) {
+        long n = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            if (counts[b] != 0) {
+                buckets[b].add(counts[b]);
+                n += counts[b];
+            }
+        }
+        count.add(n);
+        sum.add(total);
+    }
+
+    static int bucket(final long value) {
+        // 64 - nlz(0) == 0, 64 - nlz(1) == 1, 64 - nlz(2..3) == 2, ...; Long.MAX_VALUE lands in 63.
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Exclusive upper bound of bucket b (2^b), saturating at Long.MAX_VALUE.
+     */
+    static long upperBound(final int b) {
+        return b >= 63 ? Long.MAX_VALUE : 1L << b;
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long sum() {
+        return sum.sum();
+    }
+
+    long bucketCount(final int b) {
+        return buckets[b].sum();
+    }
+
+    /**
+     * Append Prometheus-style cumulative buckets (le = inclusive bound), then _sum and _count.
+     * Buckets past the highest non-empty one are left out.
+     */
+    void appendTo(final StringBuilder out, final String name, final String labels) {
+        int last = 0;
+        final long[] counts = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b] = buckets[b].sum();
+            if (counts[b] != 0) {
+                last = b;
+            }
+        }
+        final String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int b = 0; b <= last; b++) {
+            cumulative += counts[b];
+            out.append(name).append("_bucket{").append(prefix).append("le=\"")
+                    .append(upperBound(b) - 1).append("\"} ").append(cumulative).append('\n');
+        }
+        out.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+        final String suffix = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(suffix).append(' ').append(sum()).append('\n');
+        out.append(name).append("_count").append(suffix).append(' ').append(cumulative).append('\n');
+    }
+}
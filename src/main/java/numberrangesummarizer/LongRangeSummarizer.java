@@ -0,0 +1,133 @@
+package numberrangesummarizer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summarizer for 64-bit sequences (e.g. ID streams), with an optional stride mode.
+ *
+ * Same input-order, directional semantics as NumberRangeSummarizerImpl, but on longs and
+ * with exact differences: nothing wraps, so values near Long.MIN_VALUE/MAX_VALUE (or
+ * Integer.MIN_VALUE/MAX_VALUE) never form a bogus +1/-1 step.
+ *
+ * Unit mode (the default) compresses +1/-1 runs only and writes exactly what the int
+ * summarizer writes for the same values, as long as no int run wraps around.
+ *
+ * Stride mode also compresses any constant non-zero step into "from-to:step", with the
+ * absolute step after the colon; the sign follows from from > to:
+ *   100,104,108,112,7,6,5   -> "100-112:4, 7-5"
+ *   50,40,30,20             -> "50-20:10"
+ * Stride runs need at least three values (see LongRunDetector for the exact greedy rule),
+ * and +1/-1 runs are still written as plain "a-b".
+ *
+ * parse() reads either form back. Stateless and thread-safe.
+ */
+public final class LongRangeSummarizer {
+
+    private final boolean strides;
+
+    /**
+     * Unit mode: only +1/-1 runs are compressed.
+     */
+    public LongRangeSummarizer() {
+        this(false);
+    }
+
+    /**
+     * @param strides true to also compress constant-stride runs into "from-to:step"
+     */
+    public LongRangeSummarizer(final boolean strides) {
+        this.strides = strides;
+    }
+
+    /**
+     * Parse a comma-separated string of longs, in input order (same rules and errors as
+     * collectInts, for the long range).
+     *
+     * @throws NumberFormatException if any token is not a valid long
+     */
+    public long[] collect(final CharSequence input) {
+        return CsvLongParser.parse(input);
+    }
+
+    /**
+     * Summary of values, e.g. "1-4, 6-2" or "10-40:10" in stride mode.
+     */
+    public String summarize(final long[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("values must not be null");
+        }
+        return summarize(values, 0, values.length);
+    }
+
+    /**
+     * Summary of values[offset, offset + length), without copying.
+     */
+    public String summarize(final long[] values, final int offset, final int length) {
+        final StringBuilder sb = new StringBuilder();
+        summarizeTo(values, offset, length, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Write the summary of values[offset, offset + length) straight to out.
+     * IOExceptions surface as UncheckedIOException.
+     */
+    public void summarizeTo(final long[] values, final int offset, final int length, final Appendable out) {
+        if (out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        final char[] scratch = new char[RangeRenderer.MAX_LONG_RUN_CHARS];
+        final boolean[] wroteRun = {false};
+        detect(values, offset, length, (from, to, step) -> {
+            try {
+                if (wroteRun[0]) {
+                    out.append(", ");
+                }
+                RangeRenderer.appendLongRun(out, from, to, step, scratch);
+                wroteRun[0] = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * The runs summarize would render, in order.
+     */
+    public List<LongRun> runs(final long[] values, final int offset, final int length) {
+        final List<LongRun> runs = new ArrayList<>();
+        detect(values, offset, length, (from, to, step) -> runs.add(new LongRun(from, to, step)));
+        return runs;
+    }
+
+    /**
+     * Read a summary written by either mode back into runs.
+     *
+     * @throws NumberFormatException if the text is not a valid summary (including a step
+     *                               that does not divide its run)
+     */
+    public static List<LongRun> parse(final CharSequence summary) {
+        final List<LongRun> runs = new ArrayList<>();
+        SummaryParser.parseLong(summary, (from, to, step) -> runs.add(new LongRun(from, to, step)));
+        return runs;
+    }
+
+    private void detect(final long[] values, final int offset, final int length,
+                        final LongRunDetector.Listener listener) {
+        if (values == null) {
+            throw new IllegalArgumentException("values must not be null");
+        }
+        if (offset < 0 || length < 0 || offset > values.length - length) {
+            throw new IndexOutOfBoundsException(
+                "offset " + offset + ", length " + length + " out of bounds for array of " + values.length);
+        }
+        final LongRunDetector detector = new LongRunDetector(listener, strides);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            detector.accept(values[i]);
+        }
+        detector.finish();
+    }
+}
@@ -0,0 +1,63 @@
+package numberrangesummarizer;
+
+/**
+ * One run of a 64-bit sequence: every value from "from" to "to" in steps of step,
+ * ascending when from < to and descending when from > to. step is the absolute stride
+ * (at least 1); singletons have from == to and step 1.
+ *
+ * Immutable value object, the 64-bit and stride-aware counterpart of Run.
+ */
+public final class LongRun {
+    private final long from;
+    private final long to;
+    private final long step;
+
+    public LongRun(final long from, final long to, final long step) {
+        if (step < 1) {
+            throw new IllegalArgumentException("step must be at least 1");
+        }
+        this.from = from;
+        this.to = to;
+        this.step = step;
+    }
+
+    public long from() {
+        return from;
+    }
+
+    public long to() {
+        return to;
+    }
+
+    public long step() {
+        return step;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LongRun)) {
+            return false;
+        }
+        final LongRun other = (LongRun) o;
+        return from == other.from && to == other.to && step == other.step;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(31 * (31 * from + to) + step);
+    }
+
+    /**
+     * Compact form, as used in summaries: "n", "a-b" for +1/-1 runs, "a-b:s" for strides.
+     */
+    @Override
+    public String toString() {
+        if (from == to) {
+            return String.valueOf(from);
+        }
+        return (step == 1) ? (from + "-" + to) : (from + "-" + to + ":" + step);
+    }
+}
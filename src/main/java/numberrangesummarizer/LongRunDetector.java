@@ -0,0 +1,104 @@
+package numberrangesummarizer;
+
+/**
+ * The run state machine for 64-bit values, optionally with arbitrary strides.
+ *
+ * Differences are checked exactly: a step only counts if next - prev did not overflow,
+ * so MAX_VALUE followed by MIN_VALUE is a jump, not a +1 step (unlike the int engine,
+ * whose wrap-around behaviour is kept for compatibility).
+ *
+ * Unit mode follows RunDetector's rules exactly. Stride mode also extends a run for any
+ * other constant non-zero difference, read greedily from the left: the first two values
+ * of a run fix its step, and a stride run only counts from three values up. A run that
+ * stops after two values with a step other than +1/-1 gives up its first value as a
+ * singleton and the second value starts the next run, so 1,5,6,7 reads as "1, 5-7"
+ * rather than "1-5:4, 6-7".
+ */
+final class LongRunDetector {
+
+    /**
+     * Receives each closed run; step is the absolute stride (1 for singletons).
+     */
+    interface Listener {
+        void onRun(long from, long to, long step);
+    }
+
+    private final Listener listener;
+    private final boolean strides;
+
+    // Values in the current run so far: 0 (none), 1 (start only) or 2 meaning "two or more".
+    private int count;
+    private long start;
+    private long prev;
+    // Signed step of the current run, once count >= 2.
+    private long step;
+
+    LongRunDetector(final Listener listener, final boolean strides) {
+        this.listener = listener;
+        this.strides = strides;
+    }
+
+    void accept(final long value) {
+        if (count == 0) {
+            start = value;
+            prev = value;
+            count = 1;
+            return;
+        }
+        if (count == 1) {
+            final long d = value - prev;
+            if (exact(prev, value, d) && (d == 1 || d == -1 || (strides && d != 0))) {
+                step = d;
+                prev = value;
+                count = 2;
+            } else {
+                listener.onRun(start, start, 1);
+                start = value;
+                prev = value;
+            }
+            return;
+        }
+        final long d = value - prev;
+        if (d == step && exact(prev, value, d)) {
+            prev = value;
+            // Past the first pair; only the "exactly two" case matters below.
+            count = 3;
+            return;
+        }
+        if (count == 2 && step != 1 && step != -1) {
+            // A stride pair is too short to be a run: emit its first value and retry from the second.
+            listener.onRun(start, start, 1);
+            start = prev;
+            count = 1;
+            accept(value);
+            return;
+        }
+        listener.onRun(start, prev, Math.abs(step));
+        start = value;
+        prev = value;
+        count = 1;
+    }
+
+    /**
+     * Close the run in progress (if any) and get ready for a new sequence.
+     */
+    void finish() {
+        if (count == 1) {
+            listener.onRun(start, start, 1);
+        } else if (count == 2 && step != 1 && step != -1) {
+            listener.onRun(start, start, 1);
+            listener.onRun(prev, prev, 1);
+        } else if (count > 1) {
+            listener.onRun(start, prev, Math.abs(step));
+        }
+        count = 0;
+    }
+
+    /**
+     * True if d == b - a without overflow.
+     */
+    private static boolean exact(final long a, final long b, final long d) {
+        // b - a overflows iff a and b differ in sign and the result's sign differs from b's.
+        return ((a ^ b) & (b ^ d)) >= 0;
+    }
+}
@@ -0,0 +1,246 @@
+package numberrangesummarizer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+
+/**
+ * Reads a CSV file of integers through a memory map and pushes every value to an IntConsumer.
+ *
+ * Digits are parsed straight from the mapped bytes (ASCII), so nothing is decoded
+ * to a String and the file never has to fit on the heap. Files larger than a single
+ * mapping (2 GB) are walked in windows; a number split across two windows is carried
+ * over in the parser state, so window boundaries never change the result.
+ *
+ * Parsing rules and errors match CsvIntParser ("Invalid integer token: '…' at position n",
+ * where n is the byte offset of the token).
+ *
+ * Typical use, constant memory end to end:
+ *   StreamingRangeSummarizer s = new StreamingRangeSummarizer(out);
+ *   MappedCsvReader.forEach(path, s);
+ *   s.flush();
+ */
+public final class MappedCsvReader {
+
+    // 256 MB per mapping keeps address space use modest and stays far below the 2 GB limit.
+    static final int DEFAULT_WINDOW = 1 << 28;
+
+    // A valid int token is at most a sign plus ten digits; anything past this is garbage anyway.
+    // Whitespace between the token and its comma does not count.
+    private static final int MAX_SLOW_TOKEN = 4096;
+
+    private final FileChannel channel;
+    private final IntConsumer sink;
+
+    // Parser state that survives window boundaries.
+    private boolean inToken;
+    private boolean afterDigits;
+    private boolean negative;
+    private int result;
+    private int digits;
+    private long tokenStart;
+
+    private MappedCsvReader(final FileChannel channel, final IntConsumer sink) {
+        this.channel = channel;
+        this.sink = sink;
+    }
+
+    /**
+     * Parse the whole file, handing every value to sink in file order.
+     *
+     * @throws NumberFormatException on the first invalid token
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static void forEach(final Path file, final IntConsumer sink) throws IOException {
+        forEach(file, sink, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Same as forEach(Path, IntConsumer) with an explicit window size (tests use tiny windows
+     * to force numbers across boundaries).
+     */
+    static void forEach(final Path file, final IntConsumer sink, final int window) throws IOException {
+        if (file == null || sink == null) {
+            throw new IllegalArgumentException("file and sink must not be null");
+        }
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            new MappedCsvReader(channel, sink).run(window);
+        }
+    }
+
+    private void run(final int window) throws IOException {
+        final long size = channel.size();
+        long pos = 0;
+        while (pos < size) {
+            final int length = (int) Math.min(window, size - pos);
+            final MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, length);
+            pos = scan(buf, pos, length);
+        }
+        endOfInput();
+    }
+
+    /**
+     * Scan one mapped window.
+     *
+     * @return absolute position to continue from (normally base + length, further if a
+     *         slow-path token ran past the window)
+     */
+    private long scan(final ByteBuffer buf, final long base, final int length) throws IOException {
+        // Work on locals; the fields are only the hand-over between windows.
+        boolean inToken = this.inToken;
+        boolean afterDigits = this.afterDigits;
+        boolean negative = this.negative;
+        int result = this.result;
+        int digits = this.digits;
+        long tokenStart = this.tokenStart;
+
+        int i = 0;
+        while (i < length) {
+            final int b = buf.get(i);
+
+            if (!inToken) {
+                // Leading whitespace and empty tokens.
+                if (b == ',' || (b >= 0 && b <= ' ')) {
+                    i++;
+                    continue;
+                }
+                inToken = true;
+                afterDigits = false;
+                negative = false;
+                result = 0;
+                digits = 0;
+                tokenStart = base + i;
+                if (b == '-' || b == '+') {
+                    negative = (b == '-');
+                    i++;
+                    continue;
+                }
+            }
+
+            if (b == ',') {
+                if (digits > 0) {
+                    sink.accept(negative ? result : -result);
+                    inToken = false;
+                    i++;
+                    continue;
+                }
+            } else if (b >= 0 && b <= ' ') {
+                if (digits > 0) {
+                    afterDigits = true;
+                    i++;
+                    continue;
+                }
+            } else if (!afterDigits && b >= '0' && b <= '9') {
+                // Negative accumulation with Integer.parseInt's overflow checks.
+                final int d = b - '0';
+                final int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+                if (result >= limit / 10 && result * 10 >= limit + d) {
+                    result = result * 10 - d;
+                    digits++;
+                    i++;
+                    continue;
+                }
+            }
+
+            // Anything else is for the slow path, which may run past this window.
+            final long next = slowToken(tokenStart);
+            inToken = false;
+            if (next >= base + length) {
+                this.inToken = false;
+                return next;
+            }
+            i = (int) (next - base);
+        }
+
+        this.inToken = inToken;
+        this.afterDigits = afterDigits;
+        this.negative = negative;
+        this.result = result;
+        this.digits = digits;
+        this.tokenStart = tokenStart;
+        return base + length;
+    }
+
+    private void endOfInput() throws IOException {
+        if (!inToken) {
+            return;
+        }
+        inToken = false;
+        if (digits > 0) {
+            sink.accept(negative ? result : -result);
+        } else {
+            slowToken(tokenStart);
+        }
+    }
+
+    /**
+     * Re-read the token at tokenStart (up to the next comma) as UTF-8 and give it to
+     * Integer.parseInt, which still accepts a few things the byte scanner does not
+     * (e.g. non-ASCII digits). Fails with the usual message otherwise.
+     *
+     * Whitespace after the token is skipped, not buffered, so only the token itself counts
+     * against MAX_SLOW_TOKEN however much padding comes before the comma.
+     *
+     * @return absolute position of the comma ending the token, or the file size
+     */
+    private long slowToken(final long tokenStart) throws IOException {
+        final long size = channel.size();
+        final ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(MAX_SLOW_TOKEN, size - tokenStart));
+        final byte[] token = new byte[MAX_SLOW_TOKEN];
+        int len = 0;
+        // Whitespace since the last token byte; only kept if more of the token follows.
+        int blanks = 0;
+        long pos = tokenStart;
+        while (pos < size) {
+            chunk.clear();
+            chunk.limit((int) Math.min(chunk.capacity(), size - pos));
+            while (chunk.hasRemaining() && channel.read(chunk, pos + chunk.position()) >= 0) {
+                // positional reads on a regular file normally fill the buffer in one go
+            }
+            chunk.flip();
+            for (int i = 0; i < chunk.limit(); i++) {
+                final byte b = chunk.get(i);
+                if (b == ',') {
+                    parseSlow(token, len, tokenStart);
+                    return pos + i;
+                }
+                if (b >= 0 && b <= ' ') {
+                    blanks++;
+                    continue;
+                }
+                if (len + blanks >= MAX_SLOW_TOKEN) {
+                    // The token is longer than anything parseInt could accept.
+                    throw invalid(new String(token, 0, len, StandardCharsets.UTF_8) + "…", tokenStart);
+                }
+                for (; blanks > 0; blanks--) {
+                    token[len++] = ' ';
+                }
+                token[len++] = b;
+            }
+            pos += chunk.limit();
+        }
+        parseSlow(token, len, tokenStart);
+        return size;
+    }
+
+    private void parseSlow(final byte[] token, final int len, final long tokenStart) {
+        final String text = new String(token, 0, len, StandardCharsets.UTF_8);
+        try {
+            sink.accept(Integer.parseInt(text));
+        } catch (NumberFormatException e) {
+            throw invalid(text, tokenStart);
+        }
+    }
+
+    private static NumberFormatException invalid(final String token, final long position) {
+        return new NumberFormatException("Invalid integer token: '" + token + "' at position " + position);
+    }
+}
@@ -1,5 +1,7 @@
 package numberrangesummarizer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 
 /**
@@ -25,11 +27,23 @@ public interface NumberRangeSummarizer {
      * - Trim whitespace around tokens and reject anything non-numeric.
      *
      * @param input CSV of integers. May be null or blank.
-     * @return a collection of integers in the same order as the input
+     * @return a mutable List of integers in the same order as the input (add, remove,
+     *         set and sort work as on an ArrayList; null elements are rejected). It holds
+     *         exactly the parsed values, and summarizeCollection reads it without unboxing.
      * @throws NumberFormatException if any token is not a valid integer
      */
     Collection<Integer> collect(String input);
 
+    /**
+     * Primitive counterpart of {@link #collect(String)}: same parsing rules and errors,
+     * but the values land in an int[] so large inputs never get boxed.
+     *
+     * @param input CSV of integers. May be null or blank.
+     * @return the parsed values in input order (empty array for null/blank input)
+     * @throws NumberFormatException if any token is not a valid integer
+     */
+    int[] collectInts(CharSequence input);
+
     /**
      * Compress the given sequence into a comma-delimited summary string by grouping 
      * strictly monotonic runs (every consecutive step is +1 or -1).
@@ -44,4 +58,81 @@ public interface NumberRangeSummarizer {
      * @return a compact summary like "1-4, 6-2" or "" if input is empty
      */
     String summarizeCollection(Collection<Integer> input);
+
+    /**
+     * Primitive counterpart of {@link #summarizeCollection(Collection)} over any IntSequence.
+     * Produces exactly the same output as the boxed path.
+     *
+     * @param input the sequence to summarize (must not be null)
+     * @return a compact summary like "1-4, 6-2" or "" if input is empty
+     */
+    String summarize(IntSequence input);
+
+    /**
+     * Write the summary of input straight into out instead of returning a String.
+     * With a reused StringBuilder, Writer or RunByteWriter the runs are rendered without
+     * building any intermediate String.
+     *
+     * @param input the sequence to summarize (must not be null)
+     * @param out   destination (must not be null); IOExceptions surface as UncheckedIOException
+     */
+    default void summarizeTo(IntSequence input, Appendable out) {
+        if (out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        try {
+            out.append(summarize(input));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sink that summarizes the values pushed into it and writes the summary to out, for
+     * input that arrives piece by piece (a file or request body being parsed). finish()
+     * leaves out holding exactly what summarizeTo would write for the same values.
+     *
+     * The default keeps the values and summarizes them on finish(); summarizers that can
+     * write runs as they close override it to stream in constant memory.
+     *
+     * @param out destination (must not be null); IOExceptions surface as UncheckedIOException
+     */
+    default SummarySink streamTo(Appendable out) {
+        if (out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        final IntArrayBuilder values = new IntArrayBuilder();
+        return new SummarySink() {
+            @Override
+            public void accept(final int value) {
+                values.add(value);
+            }
+
+            @Override
+            public void finish() {
+                summarizeTo(values.asSequence(), out);
+                values.clear();
+            }
+        };
+    }
+
+    /**
+     * Summarize a slice of an int[] without copying it.
+     *
+     * @param values backing array (must not be null)
+     * @param offset index of the first value to summarize
+     * @param length number of values to summarize
+     * @return a compact summary like "1-4, 6-2" or "" if length is 0
+     * @throws IndexOutOfBoundsException if the slice does not fit in the array
+     */
+    default String summarize(int[] values, int offset, int length) {
+        return summarize(IntSequence.of(values, offset, length));
+    }
+
+    /**
+     * Summarize a whole int[].
+     */
+    default String summarize(int[] values) {
+        return summarize(IntSequence.of(values));
+    }
 }
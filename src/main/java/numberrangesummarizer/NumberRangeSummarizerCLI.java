@@ -1,20 +1,87 @@
 package numberrangesummarizer;
 
-import java.util.Collection;
-import java.util.Scanner;
+import java.util.Arrays;
 
 /**
  * Interactive mode for manual testing.
  *
  * You can run it with no args and type lines, or pass a single CSV as an arg.
+ * For inputs too big for the command line, use --file path: the file is memory
+ * mapped and streamed through the summarizer without ever being held in memory.
+ * Runs are printed as they are found, so if the file turns out to hold a bad token the
+ * Result line ends in "(incomplete)", the error goes to stderr and the exit status is 1.
+ * For many sequences at once, use --batch [path]: one CSV per line from stdin (or
+ * the file), one Result line per input line, fully buffered and without prompts; bad
+ * options or unreadable input exit with status 1.
+ * Add --threads N (and optionally --queue-depth M) to spread lines over N workers
+ * while keeping the output in input order. --cache-bytes B (e.g. 64m) answers repeated
+ * lines from a SummaryCache of about B bytes instead of summarizing them again.
+ * --metrics (batch and serve) records call counts, phase latencies and run lengths: batch
+ * prints them to stderr at the end, serve exposes them on GET /metrics and over JMX.
+ * To run as a service, use --serve port [--threads N | --virtual] [--cache-bytes B] [--metrics]:
+ * POST /summarize and POST /batch over HTTP (see SummaryServer) on a fixed pool of N
+ * threads, or on virtual threads when the JDK has them. Bad options or a port that cannot
+ * be bound exit with status 1.
+ * A leading --sorted switches every mode to set semantics (SortedRangeSummarizer): values
+ * are sorted and de-duplicated, so 3,1,2,2 gives 1-3. With --file the values stream into
+ * an IntBitmap and are never held as an array.
  * This CLI uses the same summarizer implementation as production.
+ *
+ * Startup matters for one-shot runs (JVM boot dominates short inputs), so this class only
+ * parses the arguments: the other modes live in CliCommands and InteractiveCli and are
+ * loaded only when used, and the one-shot path sticks to the primitive API and plain
+ * prints (no Scanner, banner, lambdas or string-concatenation bootstraps).
  */
 public class NumberRangeSummarizerCLI {
 
-    private final NumberRangeSummarizer summarizer = new NumberRangeSummarizerImpl();
+    private final NumberRangeSummarizer summarizer;
+    private final boolean sorted;
+
+    NumberRangeSummarizerCLI() {
+        this(false);
+    }
+
+    NumberRangeSummarizerCLI(boolean sorted) {
+        this.sorted = sorted;
+        this.summarizer = sorted ? new SortedRangeSummarizer() : new NumberRangeSummarizerImpl();
+    }
 
     public static void main(String[] args) {
-        NumberRangeSummarizerCLI cli = new NumberRangeSummarizerCLI();
+        // --sorted ...: same modes, set semantics.
+        boolean sorted = args.length > 0 && "--sorted".equals(args[0]);
+        if (sorted) {
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+        NumberRangeSummarizerCLI cli = new NumberRangeSummarizerCLI(sorted);
+
+        // --file path: summarize a (possibly huge) CSV file and exit.
+        if (args.length > 0 && "--file".equals(args[0])) {
+            if (args.length < 2) {
+                System.err.println("Error: --file needs a path");
+                System.exit(1);
+            }
+            if (!cli.commands().processFileAndPrint(args[1])) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        // --batch [path] [--threads N] [--queue-depth M]: newline-delimited sequences,
+        // no prompts, buffered output.
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            if (!cli.commands().processBatch(Arrays.copyOfRange(args, 1, args.length))) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        // --serve port [--threads N | --virtual]: HTTP service until the process is stopped.
+        if (args.length > 0 && "--serve".equals(args[0])) {
+            if (!cli.commands().serve(Arrays.copyOfRange(args, 1, args.length))) {
+                System.exit(1);
+            }
+            return;
+        }
 
         // If a single line is passed as an argument, just process it and exit.
         if (args.length > 0) {
@@ -23,54 +90,33 @@ public class NumberRangeSummarizerCLI {
         }
 
         // Otherwise, enter a loop.
-        System.out.println("\n");
-        System.out.println(
-            "╔═══════════════════════════════════════════════════╗");
-        System.out.println(
-            "║     Number Range Summarizer - Interactive Mode    ║");
-        System.out.println(
-            "╚═══════════════════════════════════════════════════╝");
-        System.out.println("Enter comma-delimited numbers (or 'quit' to exit)");
-        System.out.println("Example: 1,3,6,7,8,12,13,14,15");
-        System.out.println();
-
-        try (Scanner sc = new Scanner(System.in)) {
-            while (true) {
-                System.out.print("Input: ");
-                if (!sc.hasNextLine()) {
-                    break; // EOF (Ctrl+D / Ctrl+Z)
-                }
-                String line = sc.nextLine();
-                if (line == null) {
-                    break;
-                }
-                String trimmed = line.trim();
-                if (trimmed.isEmpty()) {
-                    continue; // ignore empty lines to reduce noise
-                }
-                if ("quit".equalsIgnoreCase(trimmed)) {
-                    break;
-                }
-                cli.processAndPrint(trimmed);
-                System.out.println();
-            }
-        }
+        InteractiveCli.run(cli);
     }
 
     /**
-     * Helper that wires together collect() and summarizeCollection(), and
-     * catches common exceptions to print a message instead of a stacktrace.
+     * Summarizes one CSV line and prints "Result: ...", or the error message instead of a
+     * stacktrace. Goes through collectInts() and summarize(int[]): same text as
+     * collect()/summarizeCollection(), without boxing or the collection view classes.
      */
-    private void processAndPrint(String input) {
+    void processAndPrint(String input) {
         try {
-            Collection<Integer> numbers = summarizer.collect(input);
-            String result = summarizer.summarizeCollection(numbers);
-            System.out.println("Result: " + result);
+            String result = summarizer.summarize(summarizer.collectInts(input));
+            System.out.print("Result: ");
+            System.out.println(result);
         } catch (NumberFormatException e) {
-            System.err.println("Error: " + e.getMessage());
+            printError("Error: ", e);
         } catch (Exception e) {
             // Keep this broad so the CLI never explodes in the user’s face.
-            System.err.println("Unexpected error: " + e.getMessage());
+            printError("Unexpected error: ", e);
         }
     }
+
+    private CliCommands commands() {
+        return new CliCommands(summarizer, sorted);
+    }
+
+    private static void printError(String prefix, Exception e) {
+        System.err.print(prefix);
+        System.err.println(e.getMessage());
+    }
 }
@@ -1,7 +1,8 @@
 package numberrangesummarizer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -13,35 +14,28 @@ import java.util.List;
  * Intentionally do not sort or globally de-duplicate. 
  * Only compress true runs in the exact sequence direction.
  */
-public final class NumberRangeSummarizerImpl implements NumberRangeSummarizer {
+public final class NumberRangeSummarizerImpl implements NumberRangeSummarizer, RunSource {
 
     @Override
     public Collection<Integer> collect(final String input) {
-        // Treat null/blank as "no numbers". This keeps the callers simple.
-        if (input == null || input.trim().isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        // Parse tokens in order, rejecting anything that isn't a valid int.
-        // Does not sort or remove duplicates here.
-        final List<Integer> out = new ArrayList<>();
-        Arrays.stream(input.split(","))
-            .map(String::trim)
-            .filter(s -> !s.isEmpty())
-            .forEach(token -> {
-                try {
-                    out.add(Integer.valueOf(token));
-                } catch (NumberFormatException e) {
-                    throw new NumberFormatException("Invalid integer token: '" + token + "'");
-                }
-            });
+        // Mutable boxed face over an exact-length copy of the parsed values; see IntArrayList.
+        return new IntArrayList(CsvIntParser.parse(input).toArray());
+    }
 
-        return out;
+    @Override
+    public int[] collectInts(final CharSequence input) {
+        // Treat null/blank as "no numbers" and parse tokens in order, rejecting anything
+        // that isn't a valid int. Does not sort or remove duplicates here.
+        return CsvIntParser.parse(input).toArray();
     }
 
     @Override
     public String summarizeCollection(final Collection<Integer> input) {
-        // Checks if input in null.
+        return summarize(toSequence(input));
+    }
+
+    @Override
+    public String summarize(final IntSequence input) {
         if (input == null) {
             throw new IllegalArgumentException("input must not be null");
         }
@@ -49,97 +43,145 @@ public final class NumberRangeSummarizerImpl implements NumberRangeSummarizer {
             return "";
         }
 
-        // O(1) index access for a simple single pass.
-        final List<Integer> seq = (input instanceof List)
-                ? (List<Integer>) input
-                : new ArrayList<>(input);
+        // Turn the sequence into monotonic runs, then renders those runs.
+        return render(toRuns(input, 0, input.size()));
+    }
 
-        // Turn the list into monotonic runs, then renders those runs.
-        final List<Run> runs = toRuns(seq);
-        final StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < runs.size(); i++) {
-            if (i > 0) {
-                sb.append(", ");
-            }
-            sb.append(runs.get(i).toDisplay());
+    @Override
+    public List<Run> runs(final IntSequence input) {
+        if (input == null) {
+            throw new IllegalArgumentException("input must not be null");
         }
-        return sb.toString();
+        return toRuns(input, 0, input.size());
+    }
+
+    @Override
+    public void summarizeTo(final IntSequence input, final Appendable out) {
+        if (input == null || out == null) {
+            throw new IllegalArgumentException("input and out must not be null");
+        }
+        // Runs are rendered straight into out as they close; no String for the summary.
+        final StreamingRangeSummarizer streaming = new StreamingRangeSummarizer(out);
+        for (int i = 0; i < input.size(); i++) {
+            streaming.accept(input.get(i));
+        }
+        streaming.finish();
+    }
+
+    /**
+     * Runs are written as soon as they close (StreamingRangeSummarizer), in constant memory.
+     */
+    @Override
+    public SummarySink streamTo(final Appendable out) {
+        return streamTo(out, null);
+    }
+
+    @Override
+    public SummarySink streamTo(final Appendable out, final RunDetector.Listener listener) {
+        if (out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        return new StreamingRangeSummarizer(out, listener);
+    }
+
+    /**
+     * Primitive view of a boxed collection, shared by every summarizer in this package.
+     */
+    static IntSequence toSequence(final Collection<Integer> input) {
+        // Checks if input in null.
+        if (input == null) {
+            throw new IllegalArgumentException("input must not be null");
+        }
+
+        // Output of collect(): skip straight to the primitive data, no unboxing at all.
+        if (input instanceof IntArrayList) {
+            return ((IntArrayList) input).sequence();
+        }
+
+        // Any other collection gets unboxed exactly once, in iteration order.
+        final int[] values = new int[input.size()];
+        int n = 0;
+        for (Integer value : input) {
+            values[n++] = value;
+        }
+        return IntSequence.of(values, 0, n);
     }
 
     /**
-     * Convert the raw sequence into runs where each consecutive difference is either +1 or -1.
+     * Convert seq[from, to) into runs where each consecutive difference is either +1 or -1.
      *
-     * Implementation details:
+     * Implementation details live in RunDetector (shared with StreamingRangeSummarizer):
      * - Keeps track of the current "step" once established (+1 or -1).
      * - If the next difference matches the step, the run continues.
      * - Otherwise (duplicate, jump, or direction change), we close the current run and 
      *   start a fresh one at the current value.
      */
-    private List<Run> toRuns(final List<Integer> seq) {
+    static List<Run> toRuns(final IntSequence seq, final int from, final int to) {
+        if (seq instanceof ArrayIntSequence) {
+            final ArrayIntSequence array = (ArrayIntSequence) seq;
+            return toRuns(array.array(), array.offset() + from, array.offset() + to);
+        }
         final List<Run> runs = new ArrayList<>();
-
-        // Make the start the first value of the sequence.
-        int start = seq.get(0);
-        int prev = start;
-
-        // "step" is null until we see the first valid +1/-1 difference.
-        Integer step = null;
-
-        for (int i = 1; i < seq.size(); i++) {
-            final int cur = seq.get(i);
-            final int diff = cur - prev;
-
-            if (step == null) {
-                // We haven't committed to a direction yet. Only +1/-1 starts a run.
-                if (diff == 1 || diff == -1) {
-                    step = diff;
-                    prev = cur;
-                } else {
-                    // Duplicate or jump: output the singleton and move on.
-                    runs.add(new Run(start, prev));
-                    start = cur;
-                    prev = cur;
-                    step = null;
-                }
-            } else {
-                // We have a direction; only exact matches continue the run.
-                if (diff == step.intValue()) {
-                    prev = cur;
-                } else {
-                    // Direction changed or a jump happened: close and restart.
-                    runs.add(new Run(start, prev));
-                    start = cur;
-                    prev = cur;
-                    step = null;
-                }
-            }
+        final RunDetector detector = new RunDetector((a, b) -> runs.add(new Run(a, b)));
+        for (int i = from; i < to; i++) {
+            detector.accept(seq.get(i));
         }
 
         // Flush the final run that was in progress.
-        runs.add(new Run(start, prev));
+        detector.finish();
         return runs;
     }
 
     /**
-     * Closed interval representing one run. May be ascending (from < to),
-     * descending (from > to), or a singleton (from == to).
-     *
-     * Encapsulated as a tiny value object so formatting is kept in one place.
+     * Same runs as the RunDetector loop, for values[from, to) of a plain array: each run's
+     * direction is read from its first two values, then RunScanner jumps straight to the
+     * first value that breaks it (a vector at a time where the JDK allows).
      */
-    static final class Run {
-        private final int from;
-        private final int to;
+    static List<Run> toRuns(final int[] values, final int from, final int to) {
+        final List<Run> runs = new ArrayList<>();
+        int i = from;
+        while (i < to) {
+            final int start = values[i];
+            if (i + 1 < to) {
+                final int step = values[i + 1] - start;
+                if (step == 1 || step == -1) {
+                    final int end = RunScanner.extend(values, i + 2, to, step);
+                    runs.add(new Run(start, values[end - 1]));
+                    i = end;
+                    continue;
+                }
+            }
+            runs.add(new Run(start, start));
+            i++;
+        }
+        return runs;
+    }
 
-        Run(final int from, final int to) {
-            this.from = from;
-            this.to = to;
+    /**
+     * Join runs as "a-b, c, d-e".
+     */
+    static String render(final List<Run> runs) {
+        final StringBuilder sb = new StringBuilder(runs.size() * 8);
+        try {
+            renderTo(runs, sb);
+        } catch (IOException e) {
+            // StringBuilder never throws.
+            throw new UncheckedIOException(e);
         }
+        return sb.toString();
+    }
 
-        /**
-         * Render the run in compact form. Singletons show as "n"; ranges as "a-b".
-         */
-        String toDisplay() {
-            return (from == to) ? String.valueOf(from) : (from + "-" + to);
+    /**
+     * Same text as render(runs), appended straight to out.
+     */
+    static void renderTo(final List<Run> runs, final Appendable out) throws IOException {
+        final char[] scratch = new char[RangeRenderer.MAX_RUN_CHARS];
+        for (int i = 0; i < runs.size(); i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            final Run run = runs.get(i);
+            RangeRenderer.appendRun(out, run.from(), run.to(), scratch);
         }
     }
-}
\ No newline at end of file
+}
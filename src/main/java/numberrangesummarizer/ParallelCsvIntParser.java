@@ -0,0 +1,131 @@
+package numberrangesummarizer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses one huge CSV in parallel, keeping the values in input order.
+ *
+ * The input is cut near evenly spaced offsets, each cut moved forward to just past
+ * the next comma so no token is split. Every chunk counts its commas first, which
+ * bounds its token count, so its segment is allocated once at the right size and
+ * never grows. Chunks are then parsed concurrently with CsvIntParser and the segments
+ * are copied into one array in chunk order.
+ *
+ * Errors behave like the sequential parser: if several chunks contain bad tokens,
+ * the one that comes first in the input is reported, with its absolute position.
+ */
+final class ParallelCsvIntParser {
+
+    private ParallelCsvIntParser() {
+    }
+
+    /**
+     * @param chunkChars target chunk length in characters (must be positive)
+     */
+    static int[] parse(final CharSequence input, final ForkJoinPool pool, final int chunkChars) {
+        if (input == null || input.length() <= chunkChars) {
+            return CsvIntParser.parse(input).toArray();
+        }
+        final int length = input.length();
+
+        final int[] bounds = splitAtCommas(input, (length + chunkChars - 1) / chunkChars);
+        final int chunks = bounds.length - 1;
+        final IntArrayBuilder[] segments = new IntArrayBuilder[chunks];
+        final RuntimeException[] errors = new RuntimeException[chunks];
+        pool.invoke(new ChunkTask(input, bounds, segments, errors, 0, chunks));
+
+        // Report the earliest failure, exactly as a left-to-right parse would have.
+        for (RuntimeException e : errors) {
+            if (e != null) {
+                throw e;
+            }
+        }
+
+        long total = 0;
+        for (IntArrayBuilder segment : segments) {
+            total += segment.size();
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("Too many values for a single int[]: " + total);
+        }
+        final int[] out = new int[(int) total];
+        int at = 0;
+        for (IntArrayBuilder segment : segments) {
+            at = segment.copyTo(out, at);
+        }
+        return out;
+    }
+
+    /**
+     * Chunk boundaries: 0, cuts just past a comma near i * length / chunks, then length.
+     * Cuts that would land on or before the previous one are dropped.
+     */
+    static int[] splitAtCommas(final CharSequence input, final int chunks) {
+        final int length = input.length();
+        final IntArrayBuilder bounds = new IntArrayBuilder(chunks + 1);
+        bounds.add(0);
+        int last = 0;
+        for (int c = 1; c < chunks; c++) {
+            int cut = (int) ((long) c * length / chunks);
+            if (cut <= last) {
+                continue;
+            }
+            while (cut < length && input.charAt(cut - 1) != ',') {
+                cut++;
+            }
+            if (cut >= length) {
+                break;
+            }
+            bounds.add(cut);
+            last = cut;
+        }
+        bounds.add(length);
+        return bounds.toArray();
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+        private final CharSequence input;
+        private final int[] bounds;
+        private final IntArrayBuilder[] segments;
+        private final RuntimeException[] errors;
+        private final int lo;
+        private final int hi;
+
+        ChunkTask(final CharSequence input, final int[] bounds, final IntArrayBuilder[] segments,
+                  final RuntimeException[] errors, final int lo, final int hi) {
+            this.input = input;
+            this.bounds = bounds;
+            this.segments = segments;
+            this.errors = errors;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                final int mid = (lo + hi) >>> 1;
+                invokeAll(new ChunkTask(input, bounds, segments, errors, lo, mid),
+                          new ChunkTask(input, bounds, segments, errors, mid, hi));
+                return;
+            }
+
+            final int from = bounds[lo];
+            final int to = bounds[lo + 1];
+            int commas = 0;
+            for (int i = from; i < to; i++) {
+                if (input.charAt(i) == ',') {
+                    commas++;
+                }
+            }
+            final IntArrayBuilder segment = new IntArrayBuilder(commas + 1);
+            segments[lo] = segment;
+            try {
+                CsvIntParser.parse(input, from, to, segment);
+            } catch (RuntimeException e) {
+                errors[lo] = e;
+            }
+        }
+    }
+}
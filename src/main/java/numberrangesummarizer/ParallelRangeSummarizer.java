@@ -0,0 +1,159 @@
+package numberrangesummarizer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join flavour of the summarizer for very long sequences.
+ *
+ * The sequence is cut into fixed-size chunks, each chunk is turned into runs on a
+ * ForkJoinPool, and the chunk results are stitched back together left to right
+ * (see RunStitcher). The output is byte-identical to NumberRangeSummarizerImpl;
+ * inputs no longer than one chunk simply take the sequential path.
+ *
+ * Parsing is parallel too: inputs longer than one parse chunk are cut at commas and
+ * the pieces are parsed concurrently (see ParallelCsvIntParser), values kept in order.
+ */
+public final class ParallelRangeSummarizer implements NumberRangeSummarizer, RunSource {
+
+    // Big enough that task overhead is noise, small enough to keep 32 cores busy on ~10M values.
+    static final int DEFAULT_CHUNK_SIZE = 1 << 18;
+
+    // Characters per parse chunk; roughly the text of DEFAULT_CHUNK_SIZE typical tokens.
+    static final int DEFAULT_PARSE_CHUNK_CHARS = 1 << 21;
+
+    private final NumberRangeSummarizer sequential = new NumberRangeSummarizerImpl();
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int parseChunkChars;
+
+    /**
+     * Uses the common pool and the default chunk sizes.
+     */
+    public ParallelRangeSummarizer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, DEFAULT_PARSE_CHUNK_CHARS);
+    }
+
+    /**
+     * @param pool      where chunk tasks run (must not be null)
+     * @param chunkSize values per summarize chunk (must be positive)
+     */
+    public ParallelRangeSummarizer(final ForkJoinPool pool, final int chunkSize) {
+        this(pool, chunkSize, DEFAULT_PARSE_CHUNK_CHARS);
+    }
+
+    /**
+     * @param pool            where chunk tasks run (must not be null)
+     * @param chunkSize       values per summarize chunk (must be positive)
+     * @param parseChunkChars characters per parse chunk (must be positive)
+     */
+    public ParallelRangeSummarizer(final ForkJoinPool pool, final int chunkSize, final int parseChunkChars) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool must not be null");
+        }
+        if (chunkSize <= 0 || parseChunkChars <= 0) {
+            throw new IllegalArgumentException("chunk sizes must be positive");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.parseChunkChars = parseChunkChars;
+    }
+
+    @Override
+    public Collection<Integer> collect(final String input) {
+        return new IntArrayList(ParallelCsvIntParser.parse(input, pool, parseChunkChars));
+    }
+
+    @Override
+    public int[] collectInts(final CharSequence input) {
+        return ParallelCsvIntParser.parse(input, pool, parseChunkChars);
+    }
+
+    @Override
+    public String summarizeCollection(final Collection<Integer> input) {
+        return summarize(NumberRangeSummarizerImpl.toSequence(input));
+    }
+
+    @Override
+    public String summarize(final IntSequence input) {
+        if (input == null) {
+            throw new IllegalArgumentException("input must not be null");
+        }
+        if (input.size() <= chunkSize) {
+            return sequential.summarize(input);
+        }
+        return NumberRangeSummarizerImpl.render(runs(input));
+    }
+
+    @Override
+    public List<Run> runs(final IntSequence input) {
+        if (input == null) {
+            throw new IllegalArgumentException("input must not be null");
+        }
+        final int n = input.size();
+        if (n <= chunkSize) {
+            return NumberRangeSummarizerImpl.toRuns(input, 0, n);
+        }
+
+        final int chunks = (int) (((long) n + chunkSize - 1) / chunkSize);
+        @SuppressWarnings("unchecked")
+        final List<Run>[] parts = new List[chunks];
+        pool.invoke(new ChunkTask(input, parts, 0, chunks));
+
+        // Stitching is a cheap sequential pass over runs, not values.
+        final List<Run> runs = parts[0];
+        for (int c = 1; c < chunks; c++) {
+            RunStitcher.append(runs, parts[c]);
+            parts[c] = null;
+        }
+        return runs;
+    }
+
+    /**
+     * A stream arrives one value after another, so there is nothing to split: runs are
+     * written as they close, exactly as NumberRangeSummarizerImpl does.
+     */
+    @Override
+    public SummarySink streamTo(final Appendable out) {
+        return streamTo(out, null);
+    }
+
+    @Override
+    public SummarySink streamTo(final Appendable out, final RunDetector.Listener listener) {
+        if (out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        return new StreamingRangeSummarizer(out, listener);
+    }
+
+    /**
+     * Summarizes chunks [lo, hi) into parts[], splitting in half until one chunk is left.
+     */
+    private final class ChunkTask extends RecursiveAction {
+        private final IntSequence seq;
+        private final List<Run>[] parts;
+        private final int lo;
+        private final int hi;
+
+        ChunkTask(final IntSequence seq, final List<Run>[] parts, final int lo, final int hi) {
+            this.seq = seq;
+            this.parts = parts;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                final int from = (int) ((long) lo * chunkSize);
+                final int to = (int) Math.min((long) from + chunkSize, seq.size());
+                parts[lo] = NumberRangeSummarizerImpl.toRuns(seq, from, to);
+                return;
+            }
+            final int mid = (lo + hi) >>> 1;
+            invokeAll(new ChunkTask(seq, parts, lo, mid), new ChunkTask(seq, parts, mid, hi));
+        }
+    }
+}
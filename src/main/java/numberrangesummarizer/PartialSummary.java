@@ -0,0 +1,219 @@
+package numberrangesummarizer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Summary of one shard of a longer sequence, small enough to ship between nodes and
+ * mergeable with its neighbours' without going back to the numbers.
+ *
+ * Each node summarizes its shard with of(...), sends toBytes() (a RunCodec record, a couple
+ * of bytes per run), and the reducer folds the decoded partials in shard order with
+ * combine. The result has exactly the runs toRuns would have found in one pass over
+ * the concatenated shards, so summary() matches summarizeCollection on the whole input.
+ *
+ * A partial is its first run, the interior runs, and the last run, which is still open:
+ * the next shard's values may extend it. Its direction (the step state) is implied by its
+ * endpoints, and a singleton has none yet, just like in RunDetector. combine stitches the
+ * boundary with RunStitcher, which may re-cut the right shard's leading runs
+ * ([5] + [6, 5, 4] is "5-6, 5-4"); interior runs are kept because that re-cut can ripple
+ * past the first one on zigzag input.
+ *
+ * combine is associative and empty() is its identity, so shards can be reduced in any
+ * grouping (a tree, a left fold, Stream.reduce) as long as their order is kept.
+ * Immutable and thread-safe.
+ */
+public final class PartialSummary {
+
+    private static final PartialSummary EMPTY = new PartialSummary(Collections.emptyList());
+
+    private final List<Run> runs;
+
+    private PartialSummary(final List<Run> runs) {
+        this.runs = runs;
+    }
+
+    /**
+     * The identity of combine: the summary of no values.
+     */
+    public static PartialSummary empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Summarize one shard.
+     */
+    public static PartialSummary of(final IntSequence shard) {
+        if (shard == null) {
+            throw new IllegalArgumentException("shard must not be null");
+        }
+        return wrap(NumberRangeSummarizerImpl.toRuns(shard, 0, shard.size()));
+    }
+
+    /**
+     * Summarize one shard held in an array.
+     */
+    public static PartialSummary of(final int[] shard) {
+        if (shard == null) {
+            throw new IllegalArgumentException("shard must not be null");
+        }
+        return wrap(NumberRangeSummarizerImpl.toRuns(shard, 0, shard.length));
+    }
+
+    /**
+     * Partial summary of the shard left followed by the shard right.
+     */
+    public static PartialSummary combine(final PartialSummary left, final PartialSummary right) {
+        if (left == null || right == null) {
+            throw new IllegalArgumentException("left and right must not be null");
+        }
+        if (right.runs.isEmpty()) {
+            return left;
+        }
+        if (left.runs.isEmpty()) {
+            return right;
+        }
+        final List<Run> runs = new ArrayList<>(left.runs.size() + right.runs.size());
+        runs.addAll(left.runs);
+        RunStitcher.append(runs, right.runs);
+        return wrap(runs);
+    }
+
+    /**
+     * Same as combine(this, right).
+     */
+    public PartialSummary combine(final PartialSummary right) {
+        return combine(this, right);
+    }
+
+    /**
+     * Combine all partials in order in one pass, copying each run once (a chain of pairwise
+     * combines copies the growing left side every time).
+     */
+    public static PartialSummary combineAll(final List<PartialSummary> partials) {
+        if (partials == null) {
+            throw new IllegalArgumentException("partials must not be null");
+        }
+        final List<Run> runs = new ArrayList<>();
+        for (PartialSummary partial : partials) {
+            if (partial == null) {
+                throw new IllegalArgumentException("partials must not contain null");
+            }
+            RunStitcher.append(runs, partial.runs);
+        }
+        return wrap(runs);
+    }
+
+    public boolean isEmpty() {
+        return runs.isEmpty();
+    }
+
+    public int runCount() {
+        return runs.size();
+    }
+
+    /**
+     * @throws NoSuchElementException if this partial is empty
+     */
+    public Run firstRun() {
+        if (runs.isEmpty()) {
+            throw new NoSuchElementException("empty partial summary has no runs");
+        }
+        return runs.get(0);
+    }
+
+    /**
+     * The open run at the right edge (the same run as firstRun() if there is only one).
+     *
+     * @throws NoSuchElementException if this partial is empty
+     */
+    public Run lastRun() {
+        if (runs.isEmpty()) {
+            throw new NoSuchElementException("empty partial summary has no runs");
+        }
+        return runs.get(runs.size() - 1);
+    }
+
+    /**
+     * The runs strictly between firstRun() and lastRun(); empty for up to two runs.
+     */
+    public List<Run> interiorRuns() {
+        return runs.size() <= 2 ? Collections.emptyList() : runs.subList(1, runs.size() - 1);
+    }
+
+    /**
+     * Every run in order, first to last. Unmodifiable.
+     */
+    public List<Run> runs() {
+        return runs;
+    }
+
+    /**
+     * The text summary, as summarizeCollection would write it for this shard.
+     */
+    public String summary() {
+        return NumberRangeSummarizerImpl.render(runs);
+    }
+
+    /**
+     * Write this partial as a RunCodec record. Does not flush or close out.
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        RunCodec.encode(runs, out);
+    }
+
+    /**
+     * The RunCodec record of this partial.
+     */
+    public byte[] toBytes() {
+        return RunCodec.toBytes(runs);
+    }
+
+    /**
+     * Read one partial written by writeTo/toBytes, leaving in just past it.
+     *
+     * @throws IllegalArgumentException if the data is truncated, corrupt, or not a run record
+     */
+    public static PartialSummary read(final ByteBuffer in) {
+        return wrap(RunCodec.decode(in));
+    }
+
+    /**
+     * @throws IllegalArgumentException if bytes is not exactly one run record
+     */
+    public static PartialSummary fromBytes(final byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("bytes must not be null");
+        }
+        final ByteBuffer in = ByteBuffer.wrap(bytes);
+        final PartialSummary partial = read(in);
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("Corrupt run record: " + in.remaining() + " trailing bytes");
+        }
+        return partial;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || (o instanceof PartialSummary && runs.equals(((PartialSummary) o).runs));
+    }
+
+    @Override
+    public int hashCode() {
+        return runs.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    private static PartialSummary wrap(final List<Run> runs) {
+        return runs.isEmpty() ? EMPTY : new PartialSummary(Collections.unmodifiableList(runs));
+    }
+}
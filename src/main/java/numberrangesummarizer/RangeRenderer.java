@@ -0,0 +1,254 @@
+package numberrangesummarizer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Allocation-free rendering of ints and runs ("a" or "a-b") into caller-owned buffers.
+ *
+ * String.valueOf / string concatenation allocate for every run; these routines write
+ * the digits straight into a char[] or byte[] the caller reuses, so rendering millions
+ * of runs produces no garbage at all.
+ *
+ * Buffers must have room for the worst case: MAX_INT_CHARS per int, MAX_RUN_CHARS per run.
+ */
+public final class RangeRenderer {
+
+    /** Longest rendered int: "-2147483648". */
+    public static final int MAX_INT_CHARS = 11;
+
+    /** Longest rendered run: "-2147483648--2147483647". */
+    public static final int MAX_RUN_CHARS = MAX_INT_CHARS * 2 + 1;
+
+    /** Longest rendered long: "-9223372036854775808". */
+    public static final int MAX_LONG_CHARS = 20;
+
+    /** Longest rendered stride run: "from-to:step" with three longs. */
+    public static final int MAX_LONG_RUN_CHARS = MAX_LONG_CHARS * 3 + 2;
+
+    private static final char[] MIN_VALUE_CHARS = "-2147483648".toCharArray();
+
+    private RangeRenderer() {
+    }
+
+    /**
+     * Write value in decimal at dst[pos].
+     *
+     * @return position just past the last digit
+     */
+    public static int writeInt(final char[] dst, int pos, int value) {
+        if (value == Integer.MIN_VALUE) {
+            System.arraycopy(MIN_VALUE_CHARS, 0, dst, pos, MIN_VALUE_CHARS.length);
+            return pos + MIN_VALUE_CHARS.length;
+        }
+        if (value < 0) {
+            dst[pos++] = '-';
+            value = -value;
+        }
+        final int end = pos + digits(value);
+        for (int i = end - 1; i >= pos; i--) {
+            final int q = value / 10;
+            dst[i] = (char) ('0' + (value - q * 10));
+            value = q;
+        }
+        return end;
+    }
+
+    /**
+     * Write value in decimal (ASCII) at dst[pos].
+     *
+     * @return position just past the last digit
+     */
+    public static int writeInt(final byte[] dst, int pos, int value) {
+        if (value == Integer.MIN_VALUE) {
+            for (char c : MIN_VALUE_CHARS) {
+                dst[pos++] = (byte) c;
+            }
+            return pos;
+        }
+        if (value < 0) {
+            dst[pos++] = '-';
+            value = -value;
+        }
+        final int end = pos + digits(value);
+        for (int i = end - 1; i >= pos; i--) {
+            final int q = value / 10;
+            dst[i] = (byte) ('0' + (value - q * 10));
+            value = q;
+        }
+        return end;
+    }
+
+    /**
+     * Write one run at dst[pos]: "from" for singletons, "from-to" otherwise.
+     *
+     * @return position just past the run
+     */
+    public static int writeRun(final char[] dst, int pos, final int from, final int to) {
+        pos = writeInt(dst, pos, from);
+        if (from != to) {
+            dst[pos++] = '-';
+            pos = writeInt(dst, pos, to);
+        }
+        return pos;
+    }
+
+    /**
+     * ASCII flavour of writeRun(char[], int, int, int).
+     */
+    public static int writeRun(final byte[] dst, int pos, final int from, final int to) {
+        pos = writeInt(dst, pos, from);
+        if (from != to) {
+            dst[pos++] = '-';
+            pos = writeInt(dst, pos, to);
+        }
+        return pos;
+    }
+
+    /**
+     * Append one run to any Appendable, using scratch (at least MAX_RUN_CHARS long) as the
+     * staging buffer. Writers, StringBuilders and RunByteWriters take the digits in one call
+     * without any intermediate String.
+     */
+    public static void appendRun(final Appendable out, final int from, final int to, final char[] scratch)
+            throws IOException {
+        if (out instanceof RunByteWriter) {
+            ((RunByteWriter) out).writeRun(from, to);
+            return;
+        }
+        append(out, scratch, writeRun(scratch, 0, from, to));
+    }
+
+    /**
+     * Write value in decimal at dst[pos].
+     *
+     * @return position just past the last digit
+     */
+    public static int writeLong(final char[] dst, int pos, final long value) {
+        if (value == (int) value) {
+            return writeInt(dst, pos, (int) value);
+        }
+        if (value < 0) {
+            dst[pos++] = '-';
+        }
+        // Digits of the negative magnitude, so Long.MIN_VALUE needs no special case.
+        long v = value < 0 ? value : -value;
+        final int end = pos + digits(v);
+        for (int i = end - 1; i >= pos; i--) {
+            final long q = v / 10;
+            dst[i] = (char) ('0' + (q * 10 - v));
+            v = q;
+        }
+        return end;
+    }
+
+    /**
+     * ASCII flavour of writeLong(char[], int, long).
+     */
+    public static int writeLong(final byte[] dst, int pos, final long value) {
+        if (value == (int) value) {
+            return writeInt(dst, pos, (int) value);
+        }
+        if (value < 0) {
+            dst[pos++] = '-';
+        }
+        long v = value < 0 ? value : -value;
+        final int end = pos + digits(v);
+        for (int i = end - 1; i >= pos; i--) {
+            final long q = v / 10;
+            dst[i] = (byte) ('0' + (q * 10 - v));
+            v = q;
+        }
+        return end;
+    }
+
+    /**
+     * Write one 64-bit run at dst[pos]: "from" for singletons, "from-to" for +1/-1 runs
+     * (step 1) and "from-to:step" for any other stride.
+     *
+     * @return position just past the run
+     */
+    public static int writeLongRun(final char[] dst, int pos, final long from, final long to, final long step) {
+        pos = writeLong(dst, pos, from);
+        if (from != to) {
+            dst[pos++] = '-';
+            pos = writeLong(dst, pos, to);
+            if (step != 1) {
+                dst[pos++] = ':';
+                pos = writeLong(dst, pos, step);
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * ASCII flavour of writeLongRun(char[], int, long, long, long).
+     */
+    public static int writeLongRun(final byte[] dst, int pos, final long from, final long to, final long step) {
+        pos = writeLong(dst, pos, from);
+        if (from != to) {
+            dst[pos++] = '-';
+            pos = writeLong(dst, pos, to);
+            if (step != 1) {
+                dst[pos++] = ':';
+                pos = writeLong(dst, pos, step);
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Same as appendRun for a 64-bit run; scratch must be at least MAX_LONG_RUN_CHARS long.
+     */
+    public static void appendLongRun(final Appendable out, final long from, final long to, final long step,
+                                     final char[] scratch) throws IOException {
+        if (out instanceof RunByteWriter) {
+            ((RunByteWriter) out).writeLongRun(from, to, step);
+            return;
+        }
+        append(out, scratch, writeLongRun(scratch, 0, from, to, step));
+    }
+
+    /**
+     * Hand text[0, n) to out in as few calls as its type allows.
+     */
+    private static void append(final Appendable out, final char[] text, final int n) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(text, 0, n);
+        } else if (out instanceof Writer) {
+            ((Writer) out).write(text, 0, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                out.append(text[i]);
+            }
+        }
+    }
+
+    /**
+     * Number of decimal digits in a non-negative int.
+     */
+    static int digits(final int value) {
+        int limit = 10;
+        for (int d = 1; d < 10; d++) {
+            if (value < limit) {
+                return d;
+            }
+            limit *= 10;
+        }
+        return 10;
+    }
+
+    /**
+     * Number of decimal digits in a non-positive long.
+     */
+    private static int digits(final long negative) {
+        long limit = -10;
+        for (int d = 1; d < 19; d++) {
+            if (negative > limit) {
+                return d;
+            }
+            limit *= 10;
+        }
+        return 19;
+    }
+}
@@ -0,0 +1,508 @@
+package numberrangesummarizer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A summary that stays up to date while its sequence is edited: append, set, insert
+ * and remove cost O(log n) instead of re-summarizing the whole sequence.
+ *
+ * The sequence is stored only as its runs, in an implicit treap (a randomly balanced
+ * binary tree ordered by position, where each node is one run and knows how many values
+ * its subtree covers). A run is (start, step, length), which is also enough to read any
+ * value back, so no per-value storage is needed.
+ *
+ * Runs are a greedy left-to-right parse, so an edit can only change runs from the one
+ * holding the previous value onwards. An edit therefore cuts the tree there, re-parses
+ * the edited values and then whole old runs (each in O(1)), and stops at the first old
+ * run that comes out unchanged: from there on the old runs are exactly what a full
+ * recompute would produce. That is one or two runs for typical edits; O(log n + k) in
+ * general, where k is the number of runs whose boundaries really change (an edit at the
+ * front of 1,2,1,2,1,2,... re-pairs everything, and so would a full recompute).
+ *
+ * Formatting is incremental: each run's text is formatted once, when the run is created,
+ * so an edit formats only the runs it re-creates. Rendering is not: the first toString()
+ * after an edit joins every stored piece, O(runs), as building any String of the whole
+ * summary must. The result is cached until the next edit, so only the first call pays.
+ *
+ * The result always equals summarizeCollection of the current values. Not thread-safe.
+ */
+public final class RangeSummary {
+
+    private Node root;
+    private String rendered = "";
+    // Reused to format every new run's text.
+    private final char[] scratch = new char[RangeRenderer.MAX_RUN_CHARS];
+    private long seed = 0x9E3779B97F4A7C15L;
+
+    public RangeSummary() {
+    }
+
+    /**
+     * Summary of an existing sequence, built in one O(n) pass.
+     */
+    public static RangeSummary of(final IntSequence values) {
+        if (values == null) {
+            throw new IllegalArgumentException("values must not be null");
+        }
+        final RangeSummary summary = new RangeSummary();
+        final Parser parser = summary.new Parser();
+        for (int i = 0; i < values.size(); i++) {
+            parser.feed(values.get(i), 0, 1);
+        }
+        parser.finish();
+        summary.root = summary.build(parser.out);
+        summary.rendered = null;
+        return summary;
+    }
+
+    /**
+     * Number of values in the sequence.
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Number of runs in the summary.
+     */
+    public int runCount() {
+        return count(root);
+    }
+
+    /**
+     * Value at index, in O(log n).
+     */
+    public int get(final int index) {
+        checkIndex(index, size());
+        Node n = root;
+        int i = index;
+        while (true) {
+            final int left = size(n.left);
+            if (i < left) {
+                n = n.left;
+            } else if (i < left + n.len) {
+                return n.valueAt(i - left);
+            } else {
+                i -= left + n.len;
+                n = n.right;
+            }
+        }
+    }
+
+    public void append(final int value) {
+        insert(size(), value);
+    }
+
+    /**
+     * Insert value before index (index == size() appends).
+     */
+    public void insert(final int index, final int value) {
+        checkIndex(index, size() + 1);
+        edit(index, Edit.INSERT, value);
+    }
+
+    /**
+     * Replace the value at index.
+     *
+     * @return the previous value
+     */
+    public int set(final int index, final int value) {
+        final int old = get(index);
+        if (old != value) {
+            edit(index, Edit.SET, value);
+        }
+        return old;
+    }
+
+    /**
+     * Remove the value at index.
+     *
+     * @return the removed value
+     */
+    public int remove(final int index) {
+        final int old = get(index);
+        edit(index, Edit.REMOVE, 0);
+        return old;
+    }
+
+    /**
+     * The runs, in order. Runs that wrap around the int range keep the endpoints, as elsewhere.
+     */
+    public List<Run> runs() {
+        final List<Run> runs = new ArrayList<>(runCount());
+        forEachNode(n -> runs.add(new Run(n.start, n.last())));
+        return runs;
+    }
+
+    /**
+     * Write the summary to out, joining the stored run texts: O(runs) unless the text is
+     * already cached.
+     */
+    public void renderTo(final Appendable out) {
+        if (out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        try {
+            if (rendered != null) {
+                out.append(rendered);
+                return;
+            }
+            final boolean[] first = {true};
+            final IOException[] failure = new IOException[1];
+            forEachNode(n -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    if (!first[0]) {
+                        out.append(", ");
+                    }
+                    out.append(n.text);
+                    first[0] = false;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The summary text, e.g. "1-4, 6-2"; identical to summarizeCollection of the values.
+     * O(runs) after an edit, then cached.
+     */
+    @Override
+    public String toString() {
+        if (rendered == null) {
+            final int runs = runCount();
+            final StringBuilder sb = new StringBuilder(chars(root) + 2 * Math.max(0, runs - 1));
+            renderTo(sb);
+            rendered = sb.toString();
+        }
+        return rendered;
+    }
+
+    private enum Edit { INSERT, SET, REMOVE }
+
+    /**
+     * Cut the tree at the run holding index - 1, re-parse from there with the edit applied,
+     * and stop at the first old run that the new parse reproduces.
+     */
+    private void edit(final int index, final Edit edit, final int value) {
+        rendered = null;
+
+        // Runs before the one holding index - 1 cannot change.
+        final int firstRun = (root == null) ? 0 : runIndexAt(Math.max(0, Math.min(index - 1, size() - 1)));
+        final Node[] parts = new Node[2];
+        split(root, firstRun, parts);
+        final Node before = parts[0];
+        Node rest = parts[1];
+        int offset = index - size(before);
+
+        final Parser parser = new Parser();
+
+        // Re-parse the old values up to the edit, the edit itself, then the remainder of that run.
+        while (rest != null) {
+            split(rest, 1, parts);
+            final Node n = parts[0];
+            rest = parts[1];
+            if (offset >= n.len) {
+                parser.feed(n.start, n.step, n.len);
+                offset -= n.len;
+                continue;
+            }
+            parser.feedPart(n, 0, offset);
+            if (edit != Edit.REMOVE) {
+                parser.feed(value, 0, 1);
+            }
+            final int resume = (edit == Edit.INSERT) ? offset : offset + 1;
+            parser.feedPart(n, resume, n.len - resume);
+            offset = -1;
+            break;
+        }
+        if (offset == 0 && edit == Edit.INSERT) {
+            // Appending after the last value.
+            parser.feed(value, 0, 1);
+        }
+
+        // Then whole old runs, until one comes out exactly as it was.
+        while (rest != null) {
+            split(rest, 1, parts);
+            final Node n = parts[0];
+            rest = parts[1];
+            parser.feed(n.start, n.step, n.len);
+            if (parser.runLen == n.len) {
+                // The open run began at n's first value and covers exactly n: in sync again.
+                parser.open = false;
+                n.left = null;
+                n.right = null;
+                n.update();
+                rest = merge(n, rest);
+                break;
+            }
+        }
+        parser.finish();
+
+        root = merge(merge(before, build(parser.out)), rest);
+    }
+
+    /**
+     * Greedy run parser over values, runs or run fragments; the same rules as RunDetector,
+     * but it tracks run lengths, so runs that wrap around the int range stay exact.
+     */
+    private final class Parser {
+        final List<Node> out = new ArrayList<>();
+        boolean open;
+        int runStart;
+        int runStep;
+        int runLen;
+        int prev;
+
+        /**
+         * Feed len values start, start + step, ... (int arithmetic); step is ignored if len is 1.
+         */
+        void feed(final int start, final int step, final int len) {
+            if (len <= 0) {
+                return;
+            }
+            accept(start);
+            if (len == 1) {
+                return;
+            }
+            accept(start + step);
+            if (len == 2) {
+                return;
+            }
+            int fed = 2;
+            if (runStep != step) {
+                // The second value broke a run going the other way; the third fixes the direction.
+                accept(start + 2 * step);
+                fed = 3;
+            }
+            runLen += len - fed;
+            prev = start + (len - 1) * step;
+        }
+
+        /**
+         * Feed len values of n starting at offset.
+         */
+        void feedPart(final Node n, final int offset, final int len) {
+            if (len > 0) {
+                feed(n.valueAt(offset), n.step, len);
+            }
+        }
+
+        void accept(final int cur) {
+            if (open) {
+                final int diff = cur - prev;
+                if ((runStep == 0 && (diff == 1 || diff == -1)) || (runStep != 0 && diff == runStep)) {
+                    runStep = diff;
+                    runLen++;
+                    prev = cur;
+                    return;
+                }
+                close();
+            }
+            open = true;
+            runStart = cur;
+            runStep = 0;
+            runLen = 1;
+            prev = cur;
+        }
+
+        void finish() {
+            if (open) {
+                close();
+                open = false;
+            }
+        }
+
+        private void close() {
+            out.add(new Node(runStart, runStep, runLen, nextPriority(), scratch));
+        }
+    }
+
+    // ---- implicit treap ----
+
+    private static final class Node {
+        final int start;
+        // +1, -1, or 0 for a single value.
+        final int step;
+        final int len;
+        final int priority;
+        final String text;
+        Node left;
+        Node right;
+        // Subtree totals: values, runs, text chars (without separators).
+        int size;
+        int count;
+        int chars;
+
+        /**
+         * @param scratch at least RangeRenderer.MAX_RUN_CHARS chars to format the text in
+         */
+        Node(final int start, final int step, final int len, final int priority, final char[] scratch) {
+            this.start = start;
+            this.step = len == 1 ? 0 : step;
+            this.len = len;
+            this.priority = priority;
+            this.text = new String(scratch, 0, RangeRenderer.writeRun(scratch, 0, start, last()));
+            update();
+        }
+
+        int valueAt(final int offset) {
+            return start + offset * step;
+        }
+
+        int last() {
+            return valueAt(len - 1);
+        }
+
+        void update() {
+            size = len + RangeSummary.size(left) + RangeSummary.size(right);
+            count = 1 + RangeSummary.count(left) + RangeSummary.count(right);
+            chars = text.length() + RangeSummary.chars(left) + RangeSummary.chars(right);
+        }
+    }
+
+    private static int size(final Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static int count(final Node n) {
+        return n == null ? 0 : n.count;
+    }
+
+    private static int chars(final Node n) {
+        return n == null ? 0 : n.chars;
+    }
+
+    /**
+     * Index of the run holding value position index.
+     */
+    private int runIndexAt(final int index) {
+        Node n = root;
+        int i = index;
+        int runs = 0;
+        while (true) {
+            final int left = size(n.left);
+            if (i < left) {
+                n = n.left;
+            } else if (i < left + n.len) {
+                return runs + count(n.left);
+            } else {
+                i -= left + n.len;
+                runs += count(n.left) + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    /**
+     * Split t into its first k runs (into[0]) and the rest (into[1]).
+     */
+    private static void split(final Node t, final int k, final Node[] into) {
+        if (t == null) {
+            into[0] = null;
+            into[1] = null;
+            return;
+        }
+        if (count(t.left) >= k) {
+            split(t.left, k, into);
+            t.left = into[1];
+            t.update();
+            into[1] = t;
+        } else {
+            split(t.right, k - count(t.left) - 1, into);
+            t.right = into[0];
+            t.update();
+            into[0] = t;
+        }
+    }
+
+    private static Node merge(final Node a, final Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            a.update();
+            return a;
+        }
+        b.left = merge(a, b.left);
+        b.update();
+        return b;
+    }
+
+    /**
+     * Treap over nodes in order, in O(n) (rightmost-spine stack instead of repeated merges).
+     */
+    private Node build(final List<Node> nodes) {
+        final ArrayDeque<Node> spine = new ArrayDeque<>();
+        for (Node n : nodes) {
+            Node last = null;
+            while (!spine.isEmpty() && spine.peek().priority < n.priority) {
+                last = spine.pop();
+                last.update();
+            }
+            n.left = last;
+            n.right = null;
+            if (!spine.isEmpty()) {
+                spine.peek().right = n;
+            }
+            spine.push(n);
+        }
+        Node top = null;
+        while (!spine.isEmpty()) {
+            top = spine.pop();
+            top.update();
+        }
+        return top;
+    }
+
+    private interface NodeVisitor {
+        void visit(Node n);
+    }
+
+    /**
+     * In-order walk without recursion (a degenerate treap is unlikely, not impossible).
+     */
+    private void forEachNode(final NodeVisitor visitor) {
+        final ArrayDeque<Node> stack = new ArrayDeque<>();
+        Node n = root;
+        while (n != null || !stack.isEmpty()) {
+            while (n != null) {
+                stack.push(n);
+                n = n.left;
+            }
+            n = stack.pop();
+            visitor.visit(n);
+            n = n.right;
+        }
+    }
+
+    private int nextPriority() {
+        // xorshift64*: cheap, and deterministic so behaviour is reproducible.
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return (int) ((seed * 0x2545F4914F6CDD1DL) >>> 32);
+    }
+
+    private static void checkIndex(final int index, final int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + bound);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package numberrangesummarizer;
+
+/**
+ * Closed interval representing one run. May be ascending (from < to),
+ * descending (from > to), or a singleton (from == to).
+ *
+ * A run stands for every value from "from" to "to" in steps of +1/-1, so a list of runs
+ * expands back into the original sequence, with one exception: int differences wrap, so
+ * 2147483647 followed by -2147483648 is also a +1 step. That run, read as a numeric range,
+ * covers every int in between instead of its two inputs (see ExpandedSummary).
+ *
+ * Encapsulated as a tiny immutable value object; rendering lives in RangeRenderer.
+ */
+public final class Run {
+    private final int from;
+    private final int to;
+
+    public Run(final int from, final int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public int from() {
+        return from;
+    }
+
+    public int to() {
+        return to;
+    }
+
+    /**
+     * Number of values in the numeric range from..to (at least 1; not the input count
+     * for a wrapped run, see RunDetector.valueCount). Counted in 64 bits: -2147483648-2147483647
+     * holds 2^32 values.
+     */
+    public long length() {
+        return Math.abs((long) to - from) + 1;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Run)) {
+            return false;
+        }
+        final Run other = (Run) o;
+        return from == other.from && to == other.to;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * from + to;
+    }
+
+    /**
+     * Compact form, as used in summaries: "n" for singletons, "a-b" for ranges.
+     */
+    @Override
+    public String toString() {
+        return (from == to) ? String.valueOf(from) : (from + "-" + to);
+    }
+}
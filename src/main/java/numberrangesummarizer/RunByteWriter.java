@@ -0,0 +1,205 @@
+package numberrangesummarizer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Buffered UTF-8 Writer onto an OutputStream or WritableByteChannel, with
+ * writeInt/writeRun/writeLongRun rendering digits straight into its byte buffer.
+ *
+ * Compared to BufferedWriter + OutputStreamWriter this skips the char→byte encoder
+ * for the ASCII we mostly write, and ints never pass through a String. The buffer is
+ * allocated once; nothing else is allocated per write.
+ *
+ * Not thread-safe (unlike java.io.Writer's contract, no lock is taken).
+ */
+public final class RunByteWriter extends Writer {
+
+    static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream stream;
+    private final WritableByteChannel channel;
+    private final byte[] buf;
+    private final ByteBuffer view;
+    private int pos;
+
+    // High surrogate waiting for its low half across write calls.
+    private char pendingHigh;
+
+    public RunByteWriter(final OutputStream out) {
+        this(out, null, DEFAULT_BUFFER_SIZE);
+    }
+
+    public RunByteWriter(final WritableByteChannel out) {
+        this(null, out, DEFAULT_BUFFER_SIZE);
+    }
+
+    RunByteWriter(final OutputStream stream, final WritableByteChannel channel, final int bufferSize) {
+        if (stream == null && channel == null) {
+            throw new IllegalArgumentException("output must not be null");
+        }
+        this.stream = stream;
+        this.channel = channel;
+        // Room for at least one whole run, so writeRun/writeLongRun never have to split.
+        this.buf = new byte[Math.max(bufferSize, RangeRenderer.MAX_LONG_RUN_CHARS)];
+        this.view = (channel != null) ? ByteBuffer.wrap(buf) : null;
+    }
+
+    /**
+     * Write value in decimal.
+     */
+    public void writeInt(final int value) throws IOException {
+        endPendingHigh();
+        ensure(RangeRenderer.MAX_INT_CHARS);
+        pos = RangeRenderer.writeInt(buf, pos, value);
+    }
+
+    /**
+     * Write one run: "from" for singletons, "from-to" otherwise.
+     */
+    public void writeRun(final int from, final int to) throws IOException {
+        endPendingHigh();
+        ensure(RangeRenderer.MAX_RUN_CHARS);
+        pos = RangeRenderer.writeRun(buf, pos, from, to);
+    }
+
+    /**
+     * Write one 64-bit run, as RangeRenderer.writeLongRun renders it.
+     */
+    public void writeLongRun(final long from, final long to, final long step) throws IOException {
+        endPendingHigh();
+        ensure(RangeRenderer.MAX_LONG_RUN_CHARS);
+        pos = RangeRenderer.writeLongRun(buf, pos, from, to, step);
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        ensure(4);
+        encode((char) c);
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        for (int i = off, end = off + len; i < end; i++) {
+            ensure(4);
+            encode(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        for (int i = off, end = off + len; i < end; i++) {
+            ensure(4);
+            encode(str.charAt(i));
+        }
+    }
+
+    @Override
+    public Writer append(final CharSequence csq) throws IOException {
+        final CharSequence s = (csq == null) ? "null" : csq;
+        return append(s, 0, s.length());
+    }
+
+    @Override
+    public Writer append(final CharSequence csq, final int start, final int end) throws IOException {
+        final CharSequence s = (csq == null) ? "null" : csq;
+        for (int i = start; i < end; i++) {
+            ensure(4);
+            encode(s.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        if (stream != null) {
+            stream.flush();
+        }
+    }
+
+    /**
+     * Flushes and closes the output. A high surrogate still waiting for its low half is
+     * written as '?' first, like any other unpaired surrogate.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            endPendingHigh();
+            flush();
+        } finally {
+            if (stream != null) {
+                stream.close();
+            } else {
+                channel.close();
+            }
+        }
+    }
+
+    private void encode(final char c) {
+        if (pendingHigh != 0) {
+            final char high = pendingHigh;
+            pendingHigh = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int cp = Character.toCodePoint(high, c);
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+                return;
+            }
+            // Unpaired high surrogate: same replacement the JDK encoder uses.
+            // ensure(4) left room for this byte plus any 3-byte char below.
+            buf[pos++] = '?';
+        }
+        if (c < 0x80) {
+            buf[pos++] = (byte) c;
+        } else if (c < 0x800) {
+            buf[pos++] = (byte) (0xC0 | (c >> 6));
+            buf[pos++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHigh = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buf[pos++] = '?';
+        } else {
+            buf[pos++] = (byte) (0xE0 | (c >> 12));
+            buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[pos++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    /**
+     * Digits and close() end any surrogate pair in progress: write the lone high half as '?'.
+     */
+    private void endPendingHigh() throws IOException {
+        if (pendingHigh != 0) {
+            pendingHigh = 0;
+            ensure(1);
+            buf[pos++] = '?';
+        }
+    }
+
+    private void ensure(final int bytes) throws IOException {
+        if (pos > buf.length - bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (pos == 0) {
+            return;
+        }
+        if (stream != null) {
+            stream.write(buf, 0, pos);
+        } else {
+            view.clear().limit(pos);
+            while (view.hasRemaining()) {
+                channel.write(view);
+            }
+        }
+        pos = 0;
+    }
+}
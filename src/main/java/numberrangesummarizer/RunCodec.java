@@ -0,0 +1,234 @@
+package numberrangesummarizer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary form of a run list, for storage and the wire.
+ *
+ * Layout (all varints are LEB128, 7 bits per byte, low bits first):
+ *
+ *   'R' 'N'          magic
+ *   0x01             format version
+ *   count            varint, number of runs
+ *   crc32            4 bytes big-endian, CRC32 of the payload bytes
+ *   payload          per run: zigzag varint (from - previous run's to), then
+ *                    zigzag varint (to - from); the first run's "previous to" is 0
+ *
+ * Consecutive runs in real data sit close together, so both deltas are usually
+ * one byte: a run costs ~2 bytes instead of the ~10-20 characters of "1234-1300, ".
+ * Differences are taken in 64-bit arithmetic, so any pair of ints round-trips.
+ *
+ * Encoding streams the payload to the OutputStream through a small fixed buffer.
+ * Decoding reads from a ByteBuffer and leaves its position just past the record,
+ * so several records can be stored back to back.
+ */
+public final class RunCodec {
+
+    static final byte MAGIC_0 = 'R';
+    static final byte MAGIC_1 = 'N';
+    static final byte VERSION = 1;
+
+    // Zigzag of a 33-bit difference needs at most 5 varint bytes; allow the full 64-bit form.
+    private static final int MAX_VARINT_BYTES = 10;
+    private static final int BUFFER_SIZE = 8192;
+
+    private RunCodec() {
+    }
+
+    /**
+     * Summarize values and write the resulting runs in binary form.
+     */
+    public static void encode(final IntSequence values, final OutputStream out) throws IOException {
+        if (values == null) {
+            throw new IllegalArgumentException("values must not be null");
+        }
+        encode(NumberRangeSummarizerImpl.toRuns(values, 0, values.size()), out);
+    }
+
+    /**
+     * Write runs in binary form to out. Does not flush or close out.
+     */
+    public static void encode(final List<Run> runs, final OutputStream out) throws IOException {
+        if (runs == null || out == null) {
+            throw new IllegalArgumentException("runs and out must not be null");
+        }
+
+        // First pass: checksum the payload without keeping it, so the header can lead.
+        final byte[] buf = new byte[BUFFER_SIZE];
+        final CRC32 crc = new CRC32();
+        encodePayload(runs, buf, (b, len) -> crc.update(b, 0, len));
+
+        int n = 0;
+        buf[n++] = MAGIC_0;
+        buf[n++] = MAGIC_1;
+        buf[n++] = VERSION;
+        n = writeVarint(buf, n, runs.size());
+        final int checksum = (int) crc.getValue();
+        buf[n++] = (byte) (checksum >>> 24);
+        buf[n++] = (byte) (checksum >>> 16);
+        buf[n++] = (byte) (checksum >>> 8);
+        buf[n++] = (byte) checksum;
+        out.write(buf, 0, n);
+
+        // Second pass: the same bytes, this time to the stream.
+        try {
+            encodePayload(runs, buf, (b, len) -> {
+                try {
+                    out.write(b, 0, len);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Encode to a fresh byte array (convenience for small run lists).
+     */
+    public static byte[] toBytes(final List<Run> runs) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + runs.size() * 2);
+        try {
+            encode(runs, bytes);
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws.
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode one record into a run list.
+     *
+     * @throws IllegalArgumentException if the data is truncated, corrupt, or not a run record
+     */
+    public static List<Run> decode(final ByteBuffer in) {
+        final List<Run> runs = new ArrayList<>();
+        decode(in, (from, to) -> runs.add(new Run(from, to)));
+        return runs;
+    }
+
+    /**
+     * Decode one record straight to its text summary ("1-4, 6-2"), without building Run objects.
+     */
+    public static String decodeToString(final ByteBuffer in) {
+        final StringBuilder sb = new StringBuilder();
+        final char[] scratch = new char[RangeRenderer.MAX_RUN_CHARS];
+        decode(in, (from, to) -> {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(scratch, 0, RangeRenderer.writeRun(scratch, 0, from, to));
+        });
+        return sb.toString();
+    }
+
+    /**
+     * Decode one record, handing each run to listener in order. The checksum is verified
+     * before returning; runs already delivered from a corrupt record should be discarded.
+     */
+    static void decode(final ByteBuffer in, final RunDetector.Listener listener) {
+        if (in == null) {
+            throw new IllegalArgumentException("input must not be null");
+        }
+        try {
+            if (in.get() != MAGIC_0 || in.get() != MAGIC_1) {
+                throw corrupt("bad magic");
+            }
+            final byte version = in.get();
+            if (version != VERSION) {
+                throw corrupt("unsupported version " + version);
+            }
+            final long count = readVarint(in);
+            if (count < 0 || count > Integer.MAX_VALUE) {
+                throw corrupt("bad run count " + count);
+            }
+            final int checksum = in.getInt();
+
+            final int payloadStart = in.position();
+            long prevTo = 0;
+            for (long i = 0; i < count; i++) {
+                final long from = prevTo + unzigzag(readVarint(in));
+                final long to = from + unzigzag(readVarint(in));
+                if (from != (int) from || to != (int) to) {
+                    throw corrupt("run " + i + " out of int range");
+                }
+                listener.onRun((int) from, (int) to);
+                prevTo = to;
+            }
+
+            final ByteBuffer payload = in.duplicate();
+            payload.limit(in.position()).position(payloadStart);
+            final CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                throw corrupt("checksum mismatch");
+            }
+        } catch (BufferUnderflowException e) {
+            throw corrupt("truncated record");
+        }
+    }
+
+    private interface Chunk {
+        void accept(byte[] bytes, int length);
+    }
+
+    private static void encodePayload(final List<Run> runs, final byte[] buf, final Chunk sink) {
+        int n = 0;
+        long prevTo = 0;
+        for (Run run : runs) {
+            if (n > buf.length - 2 * MAX_VARINT_BYTES) {
+                sink.accept(buf, n);
+                n = 0;
+            }
+            n = writeVarint(buf, n, zigzag(run.from() - prevTo));
+            n = writeVarint(buf, n, zigzag((long) run.to() - run.from()));
+            prevTo = run.to();
+        }
+        if (n > 0) {
+            sink.accept(buf, n);
+        }
+    }
+
+    static long zigzag(final long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    static long unzigzag(final long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static int writeVarint(final byte[] buf, int pos, long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+        return pos;
+    }
+
+    static long readVarint(final ByteBuffer in) {
+        long result = 0;
+        for (int shift = 0; shift < 7 * MAX_VARINT_BYTES; shift += 7) {
+            final byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw corrupt("varint too long");
+    }
+
+    private static IllegalArgumentException corrupt(final String why) {
+        return new IllegalArgumentException("Corrupt run record: " + why);
+    }
+}
@@ -0,0 +1,131 @@
+package numberrangesummarizer;
+
+/**
+ * The +1/-1 run state machine on its own, fed one value at a time.
+ *
+ * Keeps only start/prev/step, so it works the same for a 5-element list and
+ * an unbounded stream. Every run is handed to the listener the moment it closes;
+ * the last one is only closed by finish(), since more values could still extend it.
+ *
+ * Rules (identical to what summarizeCollection has always done):
+ * - A run starts at any value with no direction yet (step == 0).
+ * - The first +1/-1 difference fixes the direction.
+ * - Only that exact difference extends the run; duplicates, jumps and direction
+ *   changes close it and the current value starts a fresh one.
+ */
+final class RunDetector {
+
+    /**
+     * Receives each closed run as its two endpoints. from == to for singletons.
+     */
+    interface Listener {
+        void onRun(int from, int to);
+    }
+
+    private final Listener listener;
+
+    private boolean open;
+    private int start;
+    private int prev;
+    // 0 until the first +1/-1 difference, then +1 or -1.
+    private int step;
+
+    RunDetector(final Listener listener) {
+        this.listener = listener;
+    }
+
+    void accept(final int cur) {
+        if (!open) {
+            start = cur;
+            prev = cur;
+            step = 0;
+            open = true;
+            return;
+        }
+
+        final int diff = cur - prev;
+        if (step == 0) {
+            // We haven't committed to a direction yet. Only +1/-1 starts a run.
+            if (diff == 1 || diff == -1) {
+                step = diff;
+                prev = cur;
+                return;
+            }
+        } else if (diff == step) {
+            // We have a direction; only exact matches continue the run.
+            prev = cur;
+            return;
+        }
+
+        // Duplicate, jump or direction change: close and restart at the current value.
+        listener.onRun(start, prev);
+        start = cur;
+        prev = cur;
+        step = 0;
+    }
+
+    /**
+     * Feed a whole run in O(1): the same result as accepting every value from..to in turn.
+     *
+     * Only the first two or three values can change state (start a run, break a run in the
+     * other direction); after that every value just extends the run, so we jump to the end.
+     * The direction comes from the wrapping int difference, consistent with accept().
+     */
+    void acceptRun(final int from, final int to) {
+        accept(from);
+        if (from == to) {
+            return;
+        }
+        final int s = Integer.signum(to - from);
+        accept(from + s);
+        if (from + s == to) {
+            return;
+        }
+        if (step != s) {
+            // from+s broke a run going the other way and is a fresh start; from+2s fixes the direction.
+            accept(from + s + s);
+        }
+        prev = to;
+    }
+
+    /**
+     * Pick up a run that was left open elsewhere (e.g. the last run of a previous chunk).
+     * The step is implied by the endpoints.
+     */
+    void resume(final int runStart, final int runEnd) {
+        finish();
+        open = true;
+        start = runStart;
+        prev = runEnd;
+        step = Integer.signum(runEnd - runStart);
+    }
+
+    /**
+     * Number of values in a run this detector emitted. Differences wrap, so 2147483647,
+     * -2147483648 is a 2-value run: count the steps in the run's own (wrapping) direction,
+     * never the numeric distance between the endpoints. Exact for any run of fewer than
+     * 2^32 values, which every int-indexed input is.
+     */
+    static long valueCount(final int from, final int to) {
+        final int d = to - from;
+        return ((d < 0 ? -d : d) & 0xFFFFFFFFL) + 1;
+    }
+
+    boolean isOpen() {
+        return open;
+    }
+
+    int start() {
+        return start;
+    }
+
+    /**
+     * Close the run in progress (if any) and reset, ready for an unrelated sequence.
+     */
+    void finish() {
+        if (open) {
+            open = false;
+            listener.onRun(start, prev);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package numberrangesummarizer;
+
+import java.util.List;
+
+/**
+ * Positional index over a run list: where every value of the summarized sequence sits,
+ * without keeping the sequence.
+ *
+ * Runs are stored as primitive arrays (from, to, direction and the cumulative end position
+ * of each run), 17 bytes per run and no objects, so a sequence of hundreds of millions of
+ * values that collapses into a few runs costs a few bytes per run. Every lookup is a
+ * binary search over the cumulative ends:
+ * - valueAt(position) and runContaining(position): O(log runs).
+ * - rangeCount(fromPosition, toPosition): the number of runs (ranges of the summary)
+ *   that cover positions [fromPosition, toPosition), O(log runs).
+ * - firstPositionOf(value): O(log runs) when the runs are globally monotone (each run
+ *   continues the previous one's direction past its last value, as in sorted input);
+ *   otherwise a value can sit in any run, so it is a linear scan over the runs (still
+ *   never over the values).
+ *
+ * Positions are longs because a handful of wide runs easily exceed 2^31 values. Runs given
+ * as Run objects or summary text are read as plain numeric ranges, as in ExpandedSummary
+ * (which is built on this index). An index built from the values themselves counts each
+ * run's values as it detects them instead, so a run that wraps around the int range
+ * (2147483647, -2147483648 is one +1 run) holds exactly the values it was made of.
+ * Immutable and safe to share between threads.
+ */
+public final class RunIndex {
+
+    private static final int UNORDERED = 0;
+    private static final int ASCENDING = 1;
+    private static final int DESCENDING = -1;
+
+    private final int[] from;
+    private final int[] to;
+    // +1 or -1, or 0 for a single value.
+    private final byte[] steps;
+    // ends[i] = number of values in runs 0..i, i.e. the position just past run i.
+    private final long[] ends;
+    private final int order;
+
+    /**
+     * @param counts values in each run, or null to read the runs as numeric ranges
+     */
+    private RunIndex(final int[] from, final int[] to, final long[] counts) {
+        this.from = from;
+        this.to = to;
+        this.steps = new byte[from.length];
+        this.ends = new long[from.length];
+        long total = 0;
+        boolean ascending = true;
+        boolean descending = true;
+        for (int i = 0; i < from.length; i++) {
+            if (counts == null) {
+                total += Math.abs((long) to[i] - from[i]) + 1;
+                steps[i] = (byte) Long.signum((long) to[i] - from[i]);
+            } else {
+                total += counts[i];
+                // Same wrapping difference as RunDetector, so wrapped runs keep their direction.
+                steps[i] = (byte) Integer.signum(to[i] - from[i]);
+            }
+            ends[i] = total;
+            // A wrapped run is not numerically monotone, so it rules out binary search.
+            ascending &= steps[i] >= 0 && from[i] <= to[i] && (i == 0 || from[i] > to[i - 1]);
+            descending &= steps[i] <= 0 && from[i] >= to[i] && (i == 0 || from[i] < to[i - 1]);
+        }
+        this.order = ascending ? ASCENDING : descending ? DESCENDING : UNORDERED;
+    }
+
+    /**
+     * Index over a run list (e.g. from RunSource.runs or RunCodec.decode).
+     */
+    public static RunIndex of(final List<Run> runs) {
+        if (runs == null) {
+            throw new IllegalArgumentException("runs must not be null");
+        }
+        final int[] froms = new int[runs.size()];
+        final int[] tos = new int[runs.size()];
+        for (int i = 0; i < froms.length; i++) {
+            froms[i] = runs.get(i).from();
+            tos[i] = runs.get(i).to();
+        }
+        return new RunIndex(froms, tos, null);
+    }
+
+    /**
+     * Index over the runs of values, found in one pass straight into the primitive arrays
+     * (no Run objects). Run sizes are the number of values each run took, never the
+     * distance between its endpoints.
+     */
+    public static RunIndex of(final IntSequence values) {
+        if (values == null) {
+            throw new IllegalArgumentException("values must not be null");
+        }
+        final IntArrayBuilder froms = new IntArrayBuilder();
+        final IntArrayBuilder tos = new IntArrayBuilder();
+        final IntArrayBuilder counts = new IntArrayBuilder();
+        // [0]: position of the value being fed, [1]: position where the open run started.
+        final int[] positions = new int[2];
+        final RunDetector detector = new RunDetector((a, b) -> {
+            froms.add(a);
+            tos.add(b);
+            counts.add(positions[0] - positions[1]);
+            positions[1] = positions[0];
+        });
+        for (int i = 0; i < values.size(); i++) {
+            positions[0] = i;
+            detector.accept(values.get(i));
+        }
+        positions[0] = values.size();
+        detector.finish();
+
+        final int[] sizes = counts.toArray();
+        final long[] lengths = new long[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            lengths[i] = sizes[i];
+        }
+        return new RunIndex(froms.toArray(), tos.toArray(), lengths);
+    }
+
+    /**
+     * Index over summary text as produced by summarizeCollection.
+     *
+     * @throws NumberFormatException if the text is not a valid summary
+     */
+    public static RunIndex parse(final CharSequence summary) {
+        final IntArrayBuilder froms = new IntArrayBuilder();
+        final IntArrayBuilder tos = new IntArrayBuilder();
+        SummaryParser.parse(summary, (a, b) -> {
+            froms.add(a);
+            tos.add(b);
+        });
+        return new RunIndex(froms.toArray(), tos.toArray(), null);
+    }
+
+    /**
+     * Number of values the runs stand for.
+     */
+    public long size() {
+        return ends.length == 0 ? 0 : ends[ends.length - 1];
+    }
+
+    /**
+     * Number of runs.
+     */
+    public int runCount() {
+        return from.length;
+    }
+
+    /**
+     * The run with the given index.
+     */
+    public Run run(final int run) {
+        checkRun(run);
+        return new Run(from[run], to[run]);
+    }
+
+    /**
+     * Position of the first value of run.
+     */
+    public long runStart(final int run) {
+        checkRun(run);
+        return start(run);
+    }
+
+    /**
+     * Value at position, in O(log runs).
+     *
+     * @throws IndexOutOfBoundsException if position is outside [0, size())
+     */
+    public int valueAt(final long position) {
+        final int run = runContaining(position);
+        return valueIn(run, position - start(run));
+    }
+
+    /**
+     * Index of the run holding position, in O(log runs).
+     *
+     * @throws IndexOutOfBoundsException if position is outside [0, size())
+     */
+    public int runContaining(final long position) {
+        if (position < 0 || position >= size()) {
+            throw new IndexOutOfBoundsException("position " + position + " out of bounds for size " + size());
+        }
+        // First run whose end is past position.
+        int lo = 0;
+        int hi = ends.length - 1;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (ends[mid] > position) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Number of runs covering positions [fromPosition, toPosition), i.e. how many ranges
+     * the summary of that slice of the sequence has. 0 for an empty slice.
+     *
+     * @throws IndexOutOfBoundsException unless 0 <= fromPosition <= toPosition <= size()
+     */
+    public int rangeCount(final long fromPosition, final long toPosition) {
+        if (fromPosition < 0 || fromPosition > toPosition || toPosition > size()) {
+            throw new IndexOutOfBoundsException("positions [" + fromPosition + ", " + toPosition
+                    + ") out of bounds for size " + size());
+        }
+        if (fromPosition == toPosition) {
+            return 0;
+        }
+        return runContaining(toPosition - 1) - runContaining(fromPosition) + 1;
+    }
+
+    /**
+     * First position holding value, or -1 if no run contains it. O(log runs) when the runs
+     * are globally monotone, otherwise O(runs).
+     */
+    public long firstPositionOf(final int value) {
+        if (order != UNORDERED) {
+            final int run = firstRunReaching(value);
+            return (run < from.length && contains(run, value)) ? offsetOf(run, value) : -1;
+        }
+        for (int run = 0; run < from.length; run++) {
+            if (contains(run, value)) {
+                return offsetOf(run, value);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * True when firstPositionOf is a binary search.
+     */
+    public boolean isMonotone() {
+        return order != UNORDERED;
+    }
+
+    int from(final int run) {
+        return from[run];
+    }
+
+    int to(final int run) {
+        return to[run];
+    }
+
+    /**
+     * Position just past run.
+     */
+    long end(final int run) {
+        return ends[run];
+    }
+
+    long start(final int run) {
+        return run == 0 ? 0 : ends[run - 1];
+    }
+
+    /**
+     * +1 or -1, the direction of run (0 for a single value).
+     */
+    int step(final int run) {
+        return steps[run];
+    }
+
+    int valueIn(final int run, final long offset) {
+        // int arithmetic, so a wrapped run wraps back around as it did in the sequence.
+        return from[run] + steps[run] * (int) offset;
+    }
+
+    /**
+     * For monotone runs: the first run whose last value is at or past value in the
+     * direction of the sequence (runCount() if none).
+     */
+    private int firstRunReaching(final int value) {
+        int lo = 0;
+        int hi = to.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            final boolean reached = (order == ASCENDING) ? to[mid] >= value : to[mid] <= value;
+            if (reached) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    private boolean contains(final int run, final int value) {
+        return distance(run, value) < ends[run] - start(run);
+    }
+
+    private long offsetOf(final int run, final int value) {
+        return start(run) + distance(run, value);
+    }
+
+    /**
+     * Steps from the run's first value to value in the run's direction, wrapping like the
+     * int arithmetic that built the run.
+     */
+    private long distance(final int run, final int value) {
+        final int d = value - from[run];
+        return (steps[run] < 0 ? -d : d) & 0xFFFFFFFFL;
+    }
+
+    private void checkRun(final int run) {
+        if (run < 0 || run >= from.length) {
+            throw new IndexOutOfBoundsException("run " + run + " out of bounds for " + from.length + " runs");
+        }
+    }
+}
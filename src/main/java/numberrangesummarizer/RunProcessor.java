@@ -0,0 +1,379 @@
+package numberrangesummarizer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reactive bridge for pipelined ingestion: chunks of numbers in, runs out as they close.
+ *
+ * A Flow.Processor that subscribes to a publisher of chunks (int[] batches from ints(),
+ * or raw CSV bytes from csv()) and publishes every Run to one downstream subscriber the
+ * moment the next value proves it finished. The runs are exactly those of
+ * summarizeCollection over the concatenation of all chunks; the last run is published
+ * when the upstream completes.
+ *
+ * Back-pressure is demand-driven in both directions: the next chunk is requested from
+ * upstream (one at a time) only when the subscriber has outstanding demand and every run
+ * from the previous chunk has been delivered. A slow subscriber therefore throttles the
+ * producer, and at most one chunk's worth of runs is ever buffered.
+ *
+ * Signals are serialized by a drain loop (whichever thread calls onNext or request does
+ * the work), so the subscriber never sees concurrent calls. A bad CSV token cancels the
+ * upstream and ends the stream with the NumberFormatException; upstream errors are passed
+ * on as they are. One subscriber per processor; a second one gets IllegalStateException.
+ */
+public final class RunProcessor<T> implements Flow.Processor<T, Run> {
+
+    private final Decoder<T> decoder;
+
+    private final AtomicReference<Flow.Subscriber<? super Run>> downstream = new AtomicReference<>();
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final ConcurrentLinkedQueue<T> chunks = new ConcurrentLinkedQueue<>();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+    private volatile boolean cancelled;
+    // Set by a non-positive request(n), which the spec answers with onError.
+    private volatile Throwable badRequest;
+
+    // Owned by the drain loop.
+    private final ArrayDeque<Run> runs = new ArrayDeque<>();
+    private final RunDetector detector = new RunDetector((a, b) -> runs.add(new Run(a, b)));
+    private int outstanding;
+    private boolean flushed;
+    private volatile boolean terminated;
+
+    private RunProcessor(final Decoder<T> decoder) {
+        this.decoder = decoder;
+    }
+
+    /**
+     * Processor for int[] batches, taken in order.
+     */
+    public static RunProcessor<int[]> ints() {
+        return new RunProcessor<>(new IntDecoder());
+    }
+
+    /**
+     * Processor for CSV text arriving as byte[] chunks (ASCII/UTF-8) split anywhere, even
+     * inside a token. Same token rules and error messages as collect(), with positions
+     * counted in bytes from the start of the stream.
+     */
+    public static RunProcessor<byte[]> csv() {
+        return new RunProcessor<>(new CsvDecoder());
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super Run> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(final long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("RunProcessor allows only one subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(final long n) {
+                if (n <= 0) {
+                    badRequest = new IllegalArgumentException("request must be positive, got " + n);
+                    cancelled = true;
+                } else {
+                    requested.getAndAccumulate(n, (current, add) -> {
+                        final long sum = current + add;
+                        return sum < 0 ? Long.MAX_VALUE : sum;
+                    });
+                }
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                drain();
+            }
+        });
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        if (!upstream.compareAndSet(null, subscription) || terminated) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(final T chunk) {
+        if (chunk == null) {
+            throw new NullPointerException("chunk must not be null");
+        }
+        chunks.add(chunk);
+        drain();
+    }
+
+    @Override
+    public void onError(final Throwable error) {
+        upstreamError = error;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    /**
+     * The single place that touches the detector and the subscriber. Whoever increments
+     * wip from 0 runs the loop; everyone else just leaves work for it.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        while (true) {
+            final Flow.Subscriber<? super Run> subscriber = downstream.get();
+            if (terminated) {
+                // Late chunks after the end are dropped, not kept.
+                chunks.clear();
+            } else if (subscriber != null) {
+                step(subscriber);
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    private void step(final Flow.Subscriber<? super Run> subscriber) {
+        while (true) {
+            if (cancelled) {
+                terminate();
+                if (badRequest != null) {
+                    subscriber.onError(badRequest);
+                }
+                return;
+            }
+            if (upstreamError != null) {
+                terminate();
+                subscriber.onError(upstreamError);
+                return;
+            }
+
+            // Deliver what is buffered, as far as demand allows.
+            while (!runs.isEmpty() && requested.get() > 0 && !cancelled) {
+                subscriber.onNext(runs.poll());
+                if (requested.get() != Long.MAX_VALUE) {
+                    requested.decrementAndGet();
+                }
+            }
+            if (cancelled) {
+                continue;
+            }
+            if (!runs.isEmpty()) {
+                return;
+            }
+
+            // Buffer empty: decode the next chunk if one has arrived.
+            final T chunk = chunks.poll();
+            if (chunk != null) {
+                outstanding--;
+                if (!decode(subscriber, chunk)) {
+                    return;
+                }
+                continue;
+            }
+
+            if (upstreamDone) {
+                if (!flushed) {
+                    flushed = true;
+                    if (!decode(subscriber, null)) {
+                        return;
+                    }
+                    continue;
+                }
+                terminated = true;
+                subscriber.onComplete();
+                return;
+            }
+
+            // Nothing to do until more input: ask for one chunk, only if someone wants runs.
+            final Flow.Subscription subscription = upstream.get();
+            if (subscription == null || outstanding > 0 || requested.get() == 0) {
+                return;
+            }
+            outstanding++;
+            subscription.request(1);
+            if (chunks.isEmpty() && !upstreamDone) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Feed a chunk (or, for null, the end of input) to the detector.
+     *
+     * @return false if it was malformed and the stream has been ended with the error
+     */
+    private boolean decode(final Flow.Subscriber<? super Run> subscriber, final T chunk) {
+        try {
+            if (chunk != null) {
+                decoder.decode(chunk, detector);
+            } else {
+                decoder.finish(detector);
+                detector.finish();
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            terminate();
+            subscriber.onError(e);
+            return false;
+        }
+    }
+
+    private void terminate() {
+        terminated = true;
+        runs.clear();
+        chunks.clear();
+        final Flow.Subscription subscription = upstream.get();
+        if (subscription != null && !upstreamDone) {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Turns one input chunk into values for the detector.
+     */
+    private interface Decoder<T> {
+        void decode(T chunk, RunDetector detector);
+
+        /**
+         * End of input: push anything still pending (e.g. a token without a trailing comma).
+         */
+        void finish(RunDetector detector);
+    }
+
+    private static final class IntDecoder implements Decoder<int[]> {
+        @Override
+        public void decode(final int[] chunk, final RunDetector detector) {
+            for (int value : chunk) {
+                detector.accept(value);
+            }
+        }
+
+        @Override
+        public void finish(final RunDetector detector) {
+        }
+    }
+
+    /**
+     * Incremental CsvIntParser over bytes: the token in progress survives chunk
+     * boundaries, so chunks can be split anywhere. Whitespace before a token is never
+     * buffered and a token can only grow to MAX_TOKEN bytes, so memory stays constant
+     * whatever the chunks hold.
+     */
+    private static final class CsvDecoder implements Decoder<byte[]> {
+        // A sign and ten digits, each up to three UTF-8 bytes (non-ASCII digits parse too),
+        // plus room for whitespace after them. Longer tokens cannot be valid ints.
+        static final int MAX_TOKEN = 1 + 10 * 3 + 32;
+
+        // Bytes of the token in progress, kept for the error message (and the slow path).
+        private final byte[] token = new byte[MAX_TOKEN];
+        private int tokenLength;
+        private long tokenStart;
+        private long position;
+
+        @Override
+        public void decode(final byte[] chunk, final RunDetector detector) {
+            for (byte b : chunk) {
+                if (b == ',') {
+                    endToken(detector);
+                } else if (tokenLength < MAX_TOKEN) {
+                    if (tokenLength == 0) {
+                        if ((b & 0xFF) <= ' ') {
+                            position++;
+                            continue;
+                        }
+                        tokenStart = position;
+                    }
+                    token[tokenLength++] = b;
+                } else if ((b & 0xFF) > ' ') {
+                    // Whitespace past a full token is dropped; anything else is one byte too many.
+                    final String text = new String(token, 0, tokenLength, StandardCharsets.UTF_8).trim();
+                    throw new NumberFormatException(
+                        "Invalid integer token: '" + text + "…' at position " + tokenStart);
+                }
+                position++;
+            }
+        }
+
+        @Override
+        public void finish(final RunDetector detector) {
+            endToken(detector);
+        }
+
+        private void endToken(final RunDetector detector) {
+            // Leading whitespace was never kept; trim the trailing part like String.trim
+            // (bytes <= ' '), then parse. Empty tokens are skipped.
+            int to = tokenLength;
+            while (to > 0 && (token[to - 1] & 0xFF) <= ' ') {
+                to--;
+            }
+            tokenLength = 0;
+            if (to == 0) {
+                return;
+            }
+            detector.accept(parseInt(0, to, tokenStart));
+        }
+
+        private int parseInt(int i, final int to, final long start) {
+            final boolean negative = token[i] == '-';
+            if (token[i] == '-' || token[i] == '+') {
+                i++;
+            }
+            // Accumulate negatively so Integer.MIN_VALUE fits (same trick as Integer.parseInt).
+            final int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+            int result = 0;
+            boolean ok = i < to;
+            for (; ok && i < to; i++) {
+                final int d = token[i] - '0';
+                if (d < 0 || d > 9 || result < limit / 10 || result * 10 < limit + d) {
+                    ok = false;
+                } else {
+                    result = result * 10 - d;
+                }
+            }
+            if (ok) {
+                return negative ? result : -result;
+            }
+            final String text = new String(token, 0, to, StandardCharsets.UTF_8).trim();
+            try {
+                // Whatever Integer.parseInt still accepts (e.g. non-ASCII digits) is fine too.
+                return Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                throw new NumberFormatException("Invalid integer token: '" + text + "' at position " + start);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package numberrangesummarizer;
+
+/**
+ * Finds where a run ends in an int[]: the inner loop of toRuns for array-backed input.
+ *
+ * This is the portable, scalar version. The multi-release jar carries a Java 17 version
+ * of this class (src/main/java17) that compares a whole vector of values per step with
+ * jdk.incubator.vector when that module is present, and falls back to this loop otherwise.
+ */
+final class RunScanner {
+
+    private RunScanner() {
+    }
+
+    /**
+     * @return true when extend() uses SIMD instructions (never, in this version)
+     */
+    static boolean vectorized() {
+        return false;
+    }
+
+    /**
+     * First index k in [from, to) where values[k] - values[k - 1] != step (int arithmetic,
+     * so wrap-around counts as a step like everywhere else), or to if the run reaches it.
+     *
+     * @param from first index to check; values[from - 1] must already be in the run
+     */
+    static int extend(final int[] values, final int from, final int to, final int step) {
+        int k = from;
+        while (k < to && values[k] - values[k - 1] == step) {
+            k++;
+        }
+        return k;
+    }
+}
@@ -0,0 +1,27 @@
+package numberrangesummarizer;
+
+import java.util.List;
+
+/**
+ * A summarizer whose run detection can be called on its own, without rendering.
+ *
+ * Lets wrappers such as InstrumentedRangeSummarizer time detection and rendering
+ * separately and look at the runs in between, also while streaming.
+ */
+interface RunSource {
+
+    /**
+     * The runs summarize(input) would render, in order.
+     *
+     * @param input the sequence to summarize (must not be null)
+     */
+    List<Run> runs(IntSequence input);
+
+    /**
+     * streamTo(out) that also hands each run to listener once it is written, in order.
+     *
+     * @param out      destination (must not be null)
+     * @param listener receives every run, or null
+     */
+    SummarySink streamTo(Appendable out, RunDetector.Listener listener);
+}
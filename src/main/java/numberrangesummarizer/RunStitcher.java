@@ -0,0 +1,54 @@
+package numberrangesummarizer;
+
+import java.util.List;
+
+/**
+ * Joins run lists computed independently for consecutive pieces of one sequence,
+ * giving exactly the runs a single left-to-right pass would have produced.
+ *
+ * Why it is not just "merge the two boundary runs": the greedy scan on the right piece
+ * started fresh at its first value, but in the full sequence that value may extend the
+ * left piece's last run, which shifts where the right piece's runs begin. For example
+ * [5] + [6, 5, 4] is "5-6, 5-4", not "5, 6-4".
+ *
+ * Runs are lossless (a run is every value between its endpoints), so we replay the right
+ * piece run by run through a RunDetector seeded with the left piece's open run. As soon
+ * as the detector starts a run exactly where one of the right piece's runs starts, both
+ * scans are in the same state and the rest of the right piece is copied unchanged.
+ * That usually happens at the first or second run; only adversarial input (long zigzags
+ * like 1,2,1,2,…) keeps shifting, and even then the replay is O(runs), not O(values).
+ */
+final class RunStitcher {
+
+    private RunStitcher() {
+    }
+
+    /**
+     * Append next to acc as if both had been summarized in one pass. acc is modified in place.
+     */
+    static void append(final List<Run> acc, final List<Run> next) {
+        if (next.isEmpty()) {
+            return;
+        }
+        if (acc.isEmpty()) {
+            acc.addAll(next);
+            return;
+        }
+
+        // The left piece's last run is still "open": more values may extend it.
+        final Run last = acc.remove(acc.size() - 1);
+        final RunDetector detector = new RunDetector((a, b) -> acc.add(new Run(a, b)));
+        detector.resume(last.from(), last.to());
+
+        for (int i = 0; i < next.size(); i++) {
+            final Run run = next.get(i);
+            detector.acceptRun(run.from(), run.to());
+            if (detector.start() == run.from()) {
+                // In sync: the open run is exactly this run, and everything after it is unchanged.
+                acc.addAll(next.subList(i, next.size()));
+                return;
+            }
+        }
+        detector.finish();
+    }
+}
@@ -0,0 +1,242 @@
+package numberrangesummarizer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Running summary of the last N values, or of the values from the last T, of a live feed.
+ *
+ * The window is kept as a deque of runs (two int ring buffers) and is never rescanned:
+ * - accept extends the newest run or starts a new one (the RunDetector rules),
+ * - eviction trims one value off the oldest run, or drops it once it is a single value,
+ * so both are O(1) (amortised, for the occasional ring growth), whatever the window size.
+ *
+ * summary() and runs() cost O(runs in the window) and give exactly what
+ * summarizeCollection would for the window's values. Trimming alone is not quite that:
+ * the runs were cut while scanning from older values, and a window that now starts with
+ * a lone value left of a run can join it differently ([5, 6, 5, 4] gives "5-6, 5-4", but
+ * without the 5 it is "6-4"). So the oldest run, when it is a single value, is stitched
+ * onto the rest with RunStitcher, which re-cuts only as far as the runs actually change.
+ *
+ * The time window stamps each value with the clock (System.nanoTime) when it arrives and
+ * evicts it once it is T old, on the next accept or query. Not thread-safe; a feed with
+ * several writers should synchronize on the summarizer.
+ */
+public final class SlidingWindowSummarizer implements IntConsumer {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Count window: at most this many values (0 for a time window).
+    private final int maxValues;
+
+    // Time window: values older than this are evicted (0 for a count window).
+    private final long windowNanos;
+    private final LongSupplier clock;
+
+    // Runs in the window, oldest first, in a ring of power-of-two capacity; the newest is open.
+    private int[] runFrom = new int[INITIAL_CAPACITY];
+    private int[] runTo = new int[INITIAL_CAPACITY];
+    private int runHead;
+    private int runCount;
+
+    // Arrival time of every value in the window, oldest first (time window only).
+    private long[] stamps;
+    private int stampHead;
+
+    private int size;
+
+    private SlidingWindowSummarizer(final int maxValues, final long windowNanos, final LongSupplier clock) {
+        this.maxValues = maxValues;
+        this.windowNanos = windowNanos;
+        this.clock = clock;
+        this.stamps = (clock != null) ? new long[INITIAL_CAPACITY] : null;
+    }
+
+    /**
+     * Window over the last n values.
+     */
+    public static SlidingWindowSummarizer lastValues(final int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("window must hold at least one value, got " + n);
+        }
+        return new SlidingWindowSummarizer(n, 0, null);
+    }
+
+    /**
+     * Window over the values that arrived within the last window (by System.nanoTime).
+     */
+    public static SlidingWindowSummarizer lastDuration(final Duration window) {
+        return lastDuration(window, System::nanoTime);
+    }
+
+    /**
+     * Same, with the clock (in nanoseconds) supplied; tests use a manual one.
+     */
+    static SlidingWindowSummarizer lastDuration(final Duration window, final LongSupplier clock) {
+        if (window == null || clock == null) {
+            throw new IllegalArgumentException("window and clock must not be null");
+        }
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive, got " + window);
+        }
+        return new SlidingWindowSummarizer(0, window.toNanos(), clock);
+    }
+
+    /**
+     * Append the next value of the feed, evicting whatever falls out of the window.
+     */
+    @Override
+    public void accept(final int value) {
+        if (clock != null) {
+            final long now = clock.getAsLong();
+            expire(now);
+            pushStamp(now);
+        }
+        append(value);
+        if (maxValues > 0 && size > maxValues) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Number of values in the window.
+     */
+    public int size() {
+        expire();
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * The window's runs, oldest first; the same as runs() of the window's values.
+     */
+    public List<Run> runs() {
+        expire();
+        final List<Run> runs = new ArrayList<>(runCount);
+        if (runCount == 0) {
+            return runs;
+        }
+        runs.add(new Run(runFrom[runHead], runTo[runHead]));
+        if (runFrom[runHead] != runTo[runHead]) {
+            // The oldest run still has a direction, so every cut after it stands.
+            for (int i = 1; i < runCount; i++) {
+                runs.add(run(i));
+            }
+            return runs;
+        }
+        // A lone oldest value may belong to the next run in the window's own scan.
+        final List<Run> rest = new ArrayList<>(runCount - 1);
+        for (int i = 1; i < runCount; i++) {
+            rest.add(run(i));
+        }
+        RunStitcher.append(runs, rest);
+        return runs;
+    }
+
+    /**
+     * Summary of the window, e.g. "1-4, 6-2"; "" when it is empty.
+     */
+    public String summary() {
+        return NumberRangeSummarizerImpl.render(runs());
+    }
+
+    /**
+     * Empty the window.
+     */
+    public void clear() {
+        runHead = 0;
+        runCount = 0;
+        stampHead = 0;
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    private Run run(final int i) {
+        final int slot = (runHead + i) & (runFrom.length - 1);
+        return new Run(runFrom[slot], runTo[slot]);
+    }
+
+    private void append(final int value) {
+        size++;
+        if (runCount > 0) {
+            final int last = (runHead + runCount - 1) & (runFrom.length - 1);
+            final int diff = value - runTo[last];
+            // The open run's step is implied by its endpoints, as in RunDetector.resume.
+            final int step = Integer.signum(runTo[last] - runFrom[last]);
+            if (step == 0 ? (diff == 1 || diff == -1) : diff == step) {
+                runTo[last] = value;
+                return;
+            }
+        }
+        if (runCount == runFrom.length) {
+            growRuns();
+        }
+        final int slot = (runHead + runCount) & (runFrom.length - 1);
+        runFrom[slot] = value;
+        runTo[slot] = value;
+        runCount++;
+    }
+
+    private void evictOldest() {
+        size--;
+        if (clock != null) {
+            stampHead = (stampHead + 1) & (stamps.length - 1);
+        }
+        final int from = runFrom[runHead];
+        final int to = runTo[runHead];
+        if (from == to) {
+            runHead = (runHead + 1) & (runFrom.length - 1);
+            runCount--;
+        } else {
+            runFrom[runHead] = from + Integer.signum(to - from);
+        }
+    }
+
+    private void expire() {
+        if (clock != null) {
+            expire(clock.getAsLong());
+        }
+    }
+
+    private void expire(final long now) {
+        // Subtract before comparing: nanoTime values may wrap, their differences do not.
+        while (size > 0 && now - stamps[stampHead] >= windowNanos) {
+            evictOldest();
+        }
+    }
+
+    private void pushStamp(final long now) {
+        if (size == stamps.length) {
+            final long[] grown = new long[stamps.length * 2];
+            for (int i = 0; i < size; i++) {
+                grown[i] = stamps[(stampHead + i) & (stamps.length - 1)];
+            }
+            stamps = grown;
+            stampHead = 0;
+        }
+        stamps[(stampHead + size) & (stamps.length - 1)] = now;
+    }
+
+    private void growRuns() {
+        final int[] from = new int[runFrom.length * 2];
+        final int[] to = new int[runTo.length * 2];
+        for (int i = 0; i < runCount; i++) {
+            final int slot = (runHead + i) & (runFrom.length - 1);
+            from[i] = runFrom[slot];
+            to[i] = runTo[slot];
+        }
+        runFrom = from;
+        runTo = to;
+        runHead = 0;
+    }
+}
@@ -0,0 +1,101 @@
+package numberrangesummarizer;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-style summarizer: values are sorted and de-duplicated before grouping, so
+ * 3,1,2,2 gives "1-3" and 5,4,3 gives "3-5". Ranges are always ascending.
+ *
+ * This is a different contract from NumberRangeSummarizerImpl (which keeps input order
+ * and directional runs); use it for feeds where only the set of values matters.
+ *
+ * Nothing is sorted or boxed: values go into an IntBitmap and the ranges are read
+ * straight off its containers, in O(values + containers) time and memory bounded by
+ * the value domain (see IntBitmap). For inputs too big to hold as an int[], stream them
+ * into an IntBitmap directly (e.g. MappedCsvReader.forEach(file, bitmap)).
+ *
+ * collect()/collectInts() parse exactly like NumberRangeSummarizerImpl and keep the
+ * input order; sorting happens when summarizing. Stateless and thread-safe.
+ */
+public final class SortedRangeSummarizer implements NumberRangeSummarizer, RunSource {
+
+    private final NumberRangeSummarizer parser = new NumberRangeSummarizerImpl();
+
+    @Override
+    public Collection<Integer> collect(final String input) {
+        return parser.collect(input);
+    }
+
+    @Override
+    public int[] collectInts(final CharSequence input) {
+        return parser.collectInts(input);
+    }
+
+    @Override
+    public String summarizeCollection(final Collection<Integer> input) {
+        return summarize(NumberRangeSummarizerImpl.toSequence(input));
+    }
+
+    @Override
+    public String summarize(final IntSequence input) {
+        return bitmapOf(input).toString();
+    }
+
+    @Override
+    public void summarizeTo(final IntSequence input, final Appendable out) {
+        if (out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        bitmapOf(input).renderTo(out);
+    }
+
+    @Override
+    public List<Run> runs(final IntSequence input) {
+        return bitmapOf(input).ranges();
+    }
+
+    /**
+     * Values go into an IntBitmap (memory bounded by the value domain, not the input
+     * length); the ranges can only be written once finish() has seen them all.
+     */
+    @Override
+    public SummarySink streamTo(final Appendable out) {
+        return streamTo(out, null);
+    }
+
+    @Override
+    public SummarySink streamTo(final Appendable out, final RunDetector.Listener listener) {
+        if (out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        return new SummarySink() {
+            private IntBitmap bitmap = new IntBitmap();
+
+            @Override
+            public void accept(final int value) {
+                bitmap.add(value);
+            }
+
+            @Override
+            public void finish() {
+                bitmap.renderTo(out);
+                if (listener != null) {
+                    bitmap.forEachRange(listener);
+                }
+                bitmap = new IntBitmap();
+            }
+        };
+    }
+
+    private static IntBitmap bitmapOf(final IntSequence input) {
+        if (input == null) {
+            throw new IllegalArgumentException("input must not be null");
+        }
+        final IntBitmap bitmap = new IntBitmap();
+        for (int i = 0; i < input.size(); i++) {
+            bitmap.add(input.get(i));
+        }
+        return bitmap;
+    }
+}
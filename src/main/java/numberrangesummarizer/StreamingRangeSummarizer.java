@@ -0,0 +1,122 @@
+package numberrangesummarizer;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Push-style summarizer for inputs too large to hold in memory.
+ *
+ * Values are pushed in one at a time with accept(); each run is written to the
+ * sink as soon as the next value proves it is finished. Memory use is constant
+ * no matter how long the sequence is: only the current run's start/prev/step
+ * are kept.
+ *
+ * The text written for one sequence (between flushes) is exactly what
+ * summarizeCollection would return for the same values.
+ *
+ * Usage:
+ *   StreamingRangeSummarizer s = new StreamingRangeSummarizer(writer);
+ *   for (int v : source) s.accept(v);
+ *   s.flush();   // writes the final run
+ *
+ * Not thread-safe; use one instance per stream.
+ */
+public final class StreamingRangeSummarizer implements SummarySink {
+
+    private final Appendable sink;
+    private final RunDetector detector;
+    // Told about every run after it is written (null for none).
+    private final RunDetector.Listener runs;
+
+    // Reused for every run so rendering never allocates.
+    private final char[] scratch = new char[RangeRenderer.MAX_RUN_CHARS];
+
+    // True once the current sequence has written a run, so the next one needs ", ".
+    private boolean wroteRun;
+
+    /**
+     * @param sink where the summary text goes (must not be null). IOExceptions from the
+     *             sink are rethrown as UncheckedIOException.
+     */
+    public StreamingRangeSummarizer(final Appendable sink) {
+        this(sink, null);
+    }
+
+    /**
+     * Same, also handing each run to runs once it is written (may be null).
+     */
+    StreamingRangeSummarizer(final Appendable sink, final RunDetector.Listener runs) {
+        if (sink == null) {
+            throw new IllegalArgumentException("sink must not be null");
+        }
+        this.sink = sink;
+        this.runs = runs;
+        this.detector = new RunDetector(this::emit);
+    }
+
+    /**
+     * Push the next value of the sequence.
+     */
+    @Override
+    public void accept(final int value) {
+        detector.accept(value);
+    }
+
+    /**
+     * Push a slice of values, in order.
+     */
+    @Override
+    public void accept(final int[] values, final int offset, final int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            detector.accept(values[i]);
+        }
+    }
+
+    /**
+     * End the current sequence: write the run in progress and flush the sink if it is
+     * Flushable. The next accept() starts a new, independent summary.
+     */
+    public void flush() {
+        finish();
+        if (sink instanceof Flushable) {
+            try {
+                ((Flushable) sink).flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * True once the current sequence has written at least one run to the sink.
+     */
+    boolean wroteRun() {
+        return wroteRun;
+    }
+
+    /**
+     * End the current sequence like flush(), but leave flushing the sink to the caller
+     * (batch output writes many sequences per buffer flush).
+     */
+    @Override
+    public void finish() {
+        detector.finish();
+        wroteRun = false;
+    }
+
+    private void emit(final int from, final int to) {
+        try {
+            if (wroteRun) {
+                sink.append(", ");
+            }
+            RangeRenderer.appendRun(sink, from, to, scratch);
+            wroteRun = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (runs != null) {
+            runs.onRun(from, to);
+        }
+    }
+}
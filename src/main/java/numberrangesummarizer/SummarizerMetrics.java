@@ -0,0 +1,213 @@
+package numberrangesummarizer;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and histograms filled by InstrumentedRangeSummarizer, for its streamTo sinks
+ * too (which is how the server's /summarize endpoint is measured).
+ *
+ * Every counter is a LongAdder and every histogram bucket too, so many request threads
+ * can record at once without contending on one cache line. Reading (snapshot(), JMX)
+ * sums the stripes and is meant for scrapes, not hot paths.
+ *
+ * Recorded:
+ *   calls (cache hits included), elements parsed, runs emitted, parse failures
+ *   latency in nanoseconds per phase: collect (parsing), toRuns (run detection), render
+ *   run lengths (values per emitted run)
+ *
+ * setEnabled(false) turns the instrumented summarizer into a plain pass-through
+ * (one volatile read per call); nothing is recorded until it is enabled again.
+ */
+public final class SummarizerMetrics implements SummarizerMetricsMBean {
+
+    /**
+     * Timed phases of a summarization.
+     */
+    public enum Phase {
+        COLLECT("collect"),
+        TO_RUNS("toRuns"),
+        RENDER("render");
+
+        private final String label;
+
+        Phase(final String label) {
+            this.label = label;
+        }
+    }
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder elementsParsed = new LongAdder();
+    private final LongAdder runsEmitted = new LongAdder();
+    private final LongAdder parseFailures = new LongAdder();
+    private final Log2Histogram[] phases = new Log2Histogram[Phase.values().length];
+    private final Log2Histogram runLengths = new Log2Histogram();
+
+    private volatile boolean enabled = true;
+
+    public SummarizerMetrics() {
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new Log2Histogram();
+        }
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getElementsParsed() {
+        return elementsParsed.sum();
+    }
+
+    @Override
+    public long getRunsEmitted() {
+        return runsEmitted.sum();
+    }
+
+    @Override
+    public long getParseFailures() {
+        return parseFailures.sum();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Number of recorded latencies for phase.
+     */
+    public long phaseCount(final Phase phase) {
+        return phases[phase.ordinal()].count();
+    }
+
+    /**
+     * Runs recorded with a length in [2^(bucket-1), 2^bucket).
+     */
+    long runLengthBucket(final int bucket) {
+        return runLengths.bucketCount(bucket);
+    }
+
+    @Override
+    public String getSnapshot() {
+        return snapshot();
+    }
+
+    /**
+     * Text snapshot in the Prometheus exposition format (counters, then histograms).
+     */
+    public String snapshot() {
+        final StringBuilder out = new StringBuilder(4096);
+        counter(out, "summarizer_calls_total", "Summaries served, cache hits included.", getCalls());
+        counter(out, "summarizer_elements_parsed_total", "Integers parsed from input.", getElementsParsed());
+        counter(out, "summarizer_runs_emitted_total", "Runs in produced summaries.", getRunsEmitted());
+        counter(out, "summarizer_parse_failures_total", "Inputs rejected by the parser.", getParseFailures());
+        out.append("# HELP summarizer_phase_nanos Time per phase in nanoseconds.\n");
+        out.append("# TYPE summarizer_phase_nanos histogram\n");
+        for (Phase phase : Phase.values()) {
+            phases[phase.ordinal()].appendTo(out, "summarizer_phase_nanos", "phase=\"" + phase.label + "\"");
+        }
+        out.append("# HELP summarizer_run_length Values per emitted run.\n");
+        out.append("# TYPE summarizer_run_length histogram\n");
+        runLengths.appendTo(out, "summarizer_run_length", "");
+        return out.toString();
+    }
+
+    /**
+     * Register with the platform MBean server as numberrangesummarizer:type=SummarizerMetrics,name=name.
+     * Registering the same name twice replaces the earlier bean.
+     *
+     * @return the name used
+     */
+    public ObjectName register(final String name) {
+        try {
+            final ObjectName objectName =
+                    new ObjectName("numberrangesummarizer:type=SummarizerMetrics,name=" + ObjectName.quote(name));
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                server.registerMBean(this, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(objectName);
+                server.registerMBean(this, objectName);
+            }
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("cannot register metrics MBean '" + name + "'", e);
+        }
+    }
+
+    void recordCall() {
+        calls.increment();
+    }
+
+    void recordParsed(final long elements) {
+        elementsParsed.add(elements);
+    }
+
+    void recordParseFailure() {
+        parseFailures.increment();
+    }
+
+    void recordPhase(final Phase phase, final long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Runs of one summary: counted once per call, lengths bucketed locally first so a
+     * million runs cost a million array increments and a handful of LongAdder adds.
+     * Lengths are the values each run took (RunDetector.valueCount), so a run that wraps
+     * around the int range counts its two values, not 2^32.
+     */
+    void recordRuns(final List<Run> runs) {
+        final RunTally tally = new RunTally();
+        for (int i = 0, n = runs.size(); i < n; i++) {
+            final Run run = runs.get(i);
+            tally.onRun(run.from(), run.to());
+        }
+        recordRuns(tally);
+    }
+
+    /**
+     * Runs of one summary gathered in a RunTally.
+     */
+    void recordRuns(final RunTally tally) {
+        runsEmitted.add(tally.runs);
+        runLengths.recordBuckets(tally.buckets, tally.values);
+    }
+
+    /**
+     * Run lengths of one summary, bucketed locally as the runs go by, so a streamed summary
+     * can be measured without keeping its runs. Not thread-safe; one per summary.
+     */
+    static final class RunTally implements RunDetector.Listener {
+        private final long[] buckets = new long[Log2Histogram.BUCKETS];
+        private long runs;
+        private long values;
+
+        @Override
+        public void onRun(final int from, final int to) {
+            final long length = RunDetector.valueCount(from, to);
+            buckets[Log2Histogram.bucket(length)]++;
+            values += length;
+            runs++;
+        }
+    }
+
+    private static void counter(final StringBuilder out, final String name, final String help, final long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+}
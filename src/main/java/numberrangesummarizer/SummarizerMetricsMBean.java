@@ -0,0 +1,24 @@
+package numberrangesummarizer;
+
+/**
+ * JMX view of SummarizerMetrics (standard MBean; see SummarizerMetrics.register()).
+ */
+public interface SummarizerMetricsMBean {
+
+    long getCalls();
+
+    long getElementsParsed();
+
+    long getRunsEmitted();
+
+    long getParseFailures();
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Everything, histograms included, in the same text format as GET /metrics.
+     */
+    String getSnapshot();
+}
@@ -0,0 +1,279 @@
+package numberrangesummarizer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded cache from raw input text to its summary, for traffic that repeats itself
+ * (retries, the same batch sent by many devices).
+ *
+ * Keys are the SHA-256 of the input's UTF-8 bytes, so a hit never parses anything and
+ * the cache never holds the (possibly huge) input itself. A collision would need a
+ * SHA-256 collision.
+ *
+ * Eviction is segmented LRU, bounded by an estimate of retained bytes: new entries
+ * start in a probation segment and move to a protected segment (at most 80% of the
+ * budget) on their second hit, so a burst of one-off inputs cannot flush the entries
+ * that keep coming back. The cache is split into independently locked stripes by key
+ * hash; there is no global lock. Hit, miss and eviction counts are LongAdders.
+ *
+ * Failures (e.g. NumberFormatException from a bad input) are not cached.
+ */
+public final class SummaryCache {
+
+    private static final int STRIPES = 16;
+
+    // Rough per-entry cost beyond the summary chars: key object, map node, String header.
+    static final int ENTRY_OVERHEAD = 128;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JDK is required to ship SHA-256.
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long maxBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxBytes approximate upper bound on memory held by cached entries
+     */
+    public SummaryCache(final long maxBytes) {
+        if (maxBytes < STRIPES * (long) ENTRY_OVERHEAD) {
+            throw new IllegalArgumentException("maxBytes must be at least " + STRIPES * ENTRY_OVERHEAD);
+        }
+        this.maxBytes = maxBytes;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxBytes / STRIPES);
+        }
+    }
+
+    /**
+     * Summary of input from the cache, or summarize.apply(input) stored for next time.
+     */
+    public String summarize(final String input, final Function<String, String> summarize) {
+        return summarize(input.getBytes(StandardCharsets.UTF_8), input, summarize);
+    }
+
+    /**
+     * Same as summarize(String, Function) for input that arrived as UTF-8 bytes; the
+     * bytes are decoded only on a miss.
+     */
+    public String summarize(final byte[] utf8, final Function<String, String> summarize) {
+        return summarize(utf8, null, summarize);
+    }
+
+    private String summarize(final byte[] utf8, final String text, final Function<String, String> summarize) {
+        final Key key = Key.of(utf8);
+        final Stripe stripe = stripes[key.stripe() & (STRIPES - 1)];
+        final String cached = stripe.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        // Computed outside the lock: a concurrent miss on the same key just does the work twice.
+        final String summary = summarize.apply(text != null ? text : new String(utf8, StandardCharsets.UTF_8));
+        evictions.add(stripe.put(key, summary));
+        return summary;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Estimated bytes currently held (always at most maxBytes()).
+     */
+    public long bytes() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.bytes();
+        }
+        return total;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "SummaryCache[hits=" + hits() + ", misses=" + misses() + ", evictions=" + evictions()
+                + ", bytes=" + bytes() + "/" + maxBytes + "]";
+    }
+
+    static long weight(final String summary) {
+        return ENTRY_OVERHEAD + 2L * summary.length();
+    }
+
+    /**
+     * One lock, two LRU segments. LinkedHashMaps in insertion order; "touching" an entry
+     * is remove + put, which moves it to the most-recent end.
+     */
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Key, String> probation = new LinkedHashMap<>();
+        private final LinkedHashMap<Key, String> protectedSegment = new LinkedHashMap<>();
+        private final long maxBytes;
+        private final long maxProtectedBytes;
+        private long probationBytes;
+        private long protectedBytes;
+
+        Stripe(final long maxBytes) {
+            this.maxBytes = maxBytes;
+            this.maxProtectedBytes = maxBytes / 5 * 4;
+        }
+
+        String get(final Key key) {
+            lock.lock();
+            try {
+                String value = protectedSegment.remove(key);
+                if (value != null) {
+                    protectedSegment.put(key, value);
+                    return value;
+                }
+                value = probation.remove(key);
+                if (value == null) {
+                    return null;
+                }
+                // Second hit: promote, demoting protected LRU entries back to probation if full.
+                probationBytes -= weight(value);
+                protectedSegment.put(key, value);
+                protectedBytes += weight(value);
+                while (protectedBytes > maxProtectedBytes) {
+                    final Map.Entry<Key, String> eldest = removeEldest(protectedSegment);
+                    protectedBytes -= weight(eldest.getValue());
+                    probation.put(eldest.getKey(), eldest.getValue());
+                    probationBytes += weight(eldest.getValue());
+                }
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return number of entries evicted to make room
+         */
+        int put(final Key key, final String value) {
+            final long weight = weight(value);
+            if (weight > maxBytes) {
+                return 0;
+            }
+            lock.lock();
+            try {
+                if (protectedSegment.containsKey(key) || probation.containsKey(key)) {
+                    return 0;
+                }
+                probation.put(key, value);
+                probationBytes += weight;
+                int evicted = 0;
+                while (probationBytes + protectedBytes > maxBytes) {
+                    final boolean fromProbation = !probation.isEmpty();
+                    final Map.Entry<Key, String> eldest = removeEldest(fromProbation ? probation : protectedSegment);
+                    if (fromProbation) {
+                        probationBytes -= weight(eldest.getValue());
+                    } else {
+                        protectedBytes -= weight(eldest.getValue());
+                    }
+                    evicted++;
+                }
+                return evicted;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long bytes() {
+            lock.lock();
+            try {
+                return probationBytes + protectedBytes;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static Map.Entry<Key, String> removeEldest(final LinkedHashMap<Key, String> segment) {
+            final Iterator<Map.Entry<Key, String>> it = segment.entrySet().iterator();
+            final Map.Entry<Key, String> next = it.next();
+            final Map.Entry<Key, String> eldest = Map.entry(next.getKey(), next.getValue());
+            it.remove();
+            return eldest;
+        }
+    }
+
+    /**
+     * 256-bit digest as four longs (no array to compare or keep alive).
+     */
+    private static final class Key {
+        private final long a;
+        private final long b;
+        private final long c;
+        private final long d;
+
+        private Key(final long a, final long b, final long c, final long d) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+        }
+
+        static Key of(final byte[] utf8) {
+            final byte[] h = SHA_256.get().digest(utf8);
+            return new Key(longAt(h, 0), longAt(h, 8), longAt(h, 16), longAt(h, 24));
+        }
+
+        private static long longAt(final byte[] h, final int i) {
+            long v = 0;
+            for (int k = 0; k < 8; k++) {
+                v = (v << 8) | (h[i + k] & 0xFF);
+            }
+            return v;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key k = (Key) o;
+            return a == k.a && b == k.b && c == k.c && d == k.d;
+        }
+
+        @Override
+        public int hashCode() {
+            // Digest bits are already uniform.
+            return (int) a;
+        }
+
+        /**
+         * Different bits from hashCode(), so each stripe's map still sees varied hashes.
+         */
+        int stripe() {
+            return (int) b;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package numberrangesummarizer;
+
+/**
+ * Reads summary text ("1-4, 6-2, -1--3, 7") back into runs.
+ *
+ * Grammar, whitespace allowed around every part:
+ *   summary := "" | run ("," run)*
+ *   run     := int | int "-" int | int "-" int ":" step
+ *   int     := ["-" | "+"] digit+
+ *
+ * The '-' between two numbers is the range separator; a '-' right after it is the
+ * second number's sign, which is how "-1--3" reads as -1 down to -3.
+ *
+ * parse() reads int summaries as summarizeCollection writes them (no strides).
+ * parseLong() reads LongRangeSummarizer output: any long, and an optional positive
+ * ":step" that must divide the distance from the first value to the last.
+ */
+final class SummaryParser {
+
+    private SummaryParser() {
+    }
+
+    /**
+     * Hand every run of summary to listener, in order.
+     *
+     * @throws NumberFormatException on malformed text, naming the offending run and its position
+     */
+    static void parse(final CharSequence summary, final RunDetector.Listener listener) {
+        parse(summary, false, Integer.MIN_VALUE, Integer.MAX_VALUE,
+            (from, to, step) -> listener.onRun((int) from, (int) to));
+    }
+
+    /**
+     * Hand every run of a 64-bit (possibly strided) summary to listener, in order.
+     *
+     * @throws NumberFormatException on malformed text, naming the offending run and its position
+     */
+    static void parseLong(final CharSequence summary, final LongRunDetector.Listener listener) {
+        parse(summary, true, Long.MIN_VALUE, Long.MAX_VALUE, listener);
+    }
+
+    private static void parse(final CharSequence summary, final boolean strides, final long min, final long max,
+                              final LongRunDetector.Listener listener) {
+        if (summary == null) {
+            throw new IllegalArgumentException("summary must not be null");
+        }
+        final Cursor c = new Cursor(summary, min, max);
+        c.skipWhitespace();
+        if (c.atEnd()) {
+            return;
+        }
+        while (true) {
+            final int runStart = c.pos;
+            final long from = c.readNumber(runStart);
+            long to = from;
+            long step = 1;
+            c.skipWhitespace();
+            if (!c.atEnd() && c.peek() == '-') {
+                c.pos++;
+                c.skipWhitespace();
+                to = c.readNumber(runStart);
+                c.skipWhitespace();
+                if (strides && !c.atEnd() && c.peek() == ':') {
+                    c.pos++;
+                    c.skipWhitespace();
+                    step = c.readNumber(runStart);
+                    c.skipWhitespace();
+                    // Unsigned distance: exact even when it does not fit in a signed long.
+                    final long distance = (from <= to) ? to - from : from - to;
+                    if (step < 1 || Long.remainderUnsigned(distance, step) != 0) {
+                        throw c.invalid(runStart);
+                    }
+                }
+            }
+            listener.onRun(from, to, step);
+
+            if (c.atEnd()) {
+                return;
+            }
+            if (c.peek() != ',') {
+                throw c.invalid(runStart);
+            }
+            c.pos++;
+            c.skipWhitespace();
+        }
+    }
+
+    private static final class Cursor {
+        private final CharSequence text;
+        private final long min;
+        private final long max;
+        private int pos;
+
+        Cursor(final CharSequence text, final long min, final long max) {
+            this.text = text;
+            this.min = min;
+            this.max = max;
+        }
+
+        boolean atEnd() {
+            return pos >= text.length();
+        }
+
+        char peek() {
+            return text.charAt(pos);
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && text.charAt(pos) <= ' ') {
+                pos++;
+            }
+        }
+
+        /**
+         * Read one signed number in [min, max] at pos; runStart is only used for the
+         * error message.
+         */
+        long readNumber(final int runStart) {
+            boolean negative = false;
+            if (!atEnd() && (peek() == '-' || peek() == '+')) {
+                negative = peek() == '-';
+                pos++;
+            }
+            // Accumulate negatively so Long.MIN_VALUE fits.
+            final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+            long value = 0;
+            int digits = 0;
+            while (!atEnd() && peek() >= '0' && peek() <= '9') {
+                final int d = peek() - '0';
+                if (value < limit / 10 || value * 10 < limit + d) {
+                    throw invalid(runStart);
+                }
+                value = value * 10 - d;
+                digits++;
+                pos++;
+            }
+            if (digits == 0) {
+                throw invalid(runStart);
+            }
+            value = negative ? value : -value;
+            if (value < min || value > max) {
+                throw invalid(runStart);
+            }
+            return value;
+        }
+
+        NumberFormatException invalid(final int runStart) {
+            int end = runStart;
+            while (end < text.length() && text.charAt(end) != ',') {
+                end++;
+            }
+            final String run = text.subSequence(runStart, end).toString().trim();
+            return new NumberFormatException("Invalid range token: '" + run + "' at position " + runStart);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package numberrangesummarizer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small HTTP front end for the summarizer, on the JDK's built-in com.sun.net.httpserver.
+ *
+ *   POST /summarize   body: one CSV sequence (any size)
+ *                     200 with the summary line, or 400 with "Error: …"
+ *   POST /batch       body: one CSV sequence per line
+ *                     200 with one "Result: …" / "Error: …" line per input line (as --batch)
+ *   GET  /metrics     text snapshot of SummarizerMetrics, when the summarizer is an
+ *                     InstrumentedRangeSummarizer (404 otherwise)
+ *
+ * /summarize parses the body as it arrives and pushes the values into the summarizer's
+ * streamTo sink, so with an order-preserving summarizer the request is never held in
+ * memory as text or ints (other summarizers keep what they need, e.g. an IntBitmap).
+ * The summary itself is buffered until the body ends so that a bad token can still
+ * turn into a 400. /batch streams both ways, block by block, through BatchProcessor.
+ *
+ * With a SummaryCache, /batch lines and /summarize bodies up to MAX_CACHED_BODY bytes
+ * (with a Content-Length) are looked up by hash first; hits are not parsed at all.
+ *
+ * Every exchange runs on the executor given to the constructor. A bounded fixed pool
+ * (fixedPool) gives the most predictable latency under overload; on JDK 21+ virtual
+ * threads (virtualThreads) let thousands of slow uploads block cheaply at once.
+ */
+public final class SummaryServer implements AutoCloseable {
+
+    // Pending connections the kernel may queue while all handlers are busy.
+    static final int BACKLOG = 1024;
+
+    // Larger /summarize bodies always stream; smaller ones are read whole when caching.
+    static final int MAX_CACHED_BODY = 1 << 20;
+
+    private final NumberRangeSummarizer summarizer;
+    private final SummaryCache cache;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Bind to address and start serving. The server owns executor and shuts it down on close().
+     *
+     * @param summarizer used for every request (must be thread-safe)
+     */
+    public SummaryServer(final NumberRangeSummarizer summarizer, final InetSocketAddress address,
+                         final ExecutorService executor) throws IOException {
+        this(summarizer, address, executor, null);
+    }
+
+    /**
+     * Same, answering repeated inputs from cache (or not caching when cache is null).
+     */
+    public SummaryServer(final NumberRangeSummarizer summarizer, final InetSocketAddress address,
+                         final ExecutorService executor, final SummaryCache cache) throws IOException {
+        if (summarizer == null || address == null || executor == null) {
+            throw new IllegalArgumentException("summarizer, address and executor must not be null");
+        }
+        this.summarizer = summarizer;
+        this.cache = cache;
+        this.executor = executor;
+        this.server = HttpServer.create(address, BACKLOG);
+        server.createContext("/summarize", guarded(this::summarize));
+        server.createContext("/batch", guarded(this::batch));
+        if (summarizer instanceof InstrumentedRangeSummarizer) {
+            final SummarizerMetrics metrics = ((InstrumentedRangeSummarizer) summarizer).metrics();
+            server.createContext("/metrics", exchange -> {
+                try {
+                    if (!"GET".equals(exchange.getRequestMethod())) {
+                        exchange.getResponseHeaders().set("Allow", "GET");
+                        send(exchange, 405, "Error: use GET");
+                        return;
+                    }
+                    send(exchange, 200, metrics.snapshot());
+                } finally {
+                    exchange.close();
+                }
+            });
+        }
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Port actually bound (useful when the address asked for port 0).
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stop accepting, give in-flight exchanges a moment to finish, then stop the executor.
+     */
+    @Override
+    public void close() {
+        stop(1);
+    }
+
+    /**
+     * close() with an explicit grace period (HttpServer.stop waits out the whole delay,
+     * so tests use 0).
+     */
+    void stop(final int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Bounded pool of platform threads; requests beyond threads wait in the pool's queue.
+     */
+    public static ExecutorService fixedPool(final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        final AtomicInteger counter = new AtomicInteger();
+        final ThreadFactory factory = r -> {
+            final Thread t = new Thread(r, "summary-http-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+
+    /**
+     * True when the running JDK has virtual threads (21+).
+     */
+    public static boolean supportsVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * One virtual thread per exchange. Looked up reflectively so the jar still builds and
+     * runs on JDK 11.
+     *
+     * @throws UnsupportedOperationException on JDKs without virtual threads
+     */
+    public static ExecutorService virtualThreads() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("virtual threads need JDK 21 or later");
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("cannot create virtual thread executor", e);
+        }
+    }
+
+    private void summarize(final HttpExchange exchange) throws IOException {
+        final long length = contentLength(exchange);
+        if (cache != null && length >= 0 && length <= MAX_CACHED_BODY) {
+            summarizeCached(exchange, (int) length);
+            return;
+        }
+        final ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        final Writer writer = new RunByteWriter(summary);
+        // An instrumented summarizer's sink records the call, phases and runs on finish().
+        final SummarySink sink = summarizer.streamTo(writer);
+        try (InputStream body = exchange.getRequestBody()) {
+            CsvIntParser.parse(new InputStreamReader(body, StandardCharsets.UTF_8), sink);
+        } catch (NumberFormatException e) {
+            final SummarizerMetrics metrics = metrics();
+            if (metrics != null) {
+                metrics.recordParseFailure();
+            }
+            send(exchange, 400, "Error: " + e.getMessage());
+            return;
+        }
+        sink.finish();
+        writer.write('\n');
+        writer.flush();
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, summary.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            summary.writeTo(out);
+        }
+    }
+
+    private void summarizeCached(final HttpExchange exchange, final int length) throws IOException {
+        final byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(length);
+        }
+        final String summary;
+        final boolean[] missed = {false};
+        try {
+            summary = cache.summarize(body, text -> {
+                missed[0] = true;
+                return summarizer.summarize(summarizer.collectInts(text));
+            });
+        } catch (NumberFormatException e) {
+            send(exchange, 400, "Error: " + e.getMessage());
+            return;
+        }
+        if (!missed[0]) {
+            InstrumentedRangeSummarizer.recordCacheHit(summarizer);
+        }
+        send(exchange, 200, summary);
+    }
+
+    /**
+     * Metrics to record /summarize parse failures into, or null when not instrumented or disabled.
+     */
+    private SummarizerMetrics metrics() {
+        if (summarizer instanceof InstrumentedRangeSummarizer) {
+            final SummarizerMetrics metrics = ((InstrumentedRangeSummarizer) summarizer).metrics();
+            return metrics.isEnabled() ? metrics : null;
+        }
+        return null;
+    }
+
+    private static long contentLength(final HttpExchange exchange) {
+        final String header = exchange.getRequestHeaders().getFirst("Content-Length");
+        try {
+            return header == null ? -1 : Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void batch(final HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        // Length 0: chunked, so results flow back while the request is still being read.
+        exchange.sendResponseHeaders(200, 0);
+        try (InputStream in = exchange.getRequestBody(); OutputStream out = exchange.getResponseBody()) {
+            new BatchProcessor(summarizer, 1, 1, cache).run(in, out);
+        }
+    }
+
+    /**
+     * POST only, and no exception escapes without an answer or a closed exchange.
+     */
+    private static HttpHandler guarded(final HttpHandler handler) {
+        return exchange -> {
+            try {
+                if (!"POST".equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().set("Allow", "POST");
+                    send(exchange, 405, "Error: use POST");
+                    return;
+                }
+                handler.handle(exchange);
+            } catch (IOException | UncheckedIOException e) {
+                // Client went away mid-exchange; nothing left to tell it.
+            } catch (RuntimeException e) {
+                if (exchange.getResponseCode() == -1) {
+                    send(exchange, 500, "Unexpected error: " + e.getMessage());
+                }
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private static void send(final HttpExchange exchange, final int status, final String text) throws IOException {
+        final byte[] bytes = (text + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
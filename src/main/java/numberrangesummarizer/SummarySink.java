@@ -0,0 +1,31 @@
+package numberrangesummarizer;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Push end of a summarizer, from NumberRangeSummarizer.streamTo: values go in one at a
+ * time (or a slice at a time) and the summary comes out on the Appendable it was made for.
+ *
+ * How soon text appears depends on the summarizer: an order-preserving one writes each run
+ * as it closes, a set-style one can only write once it has seen every value. finish()
+ * always completes the summary, and the next accept() starts a new, independent one.
+ * IOExceptions from the output surface as UncheckedIOException.
+ *
+ * Not thread-safe; use one sink per stream.
+ */
+public interface SummarySink extends IntConsumer {
+
+    /**
+     * Push a slice of values, in order.
+     */
+    default void accept(int[] values, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            accept(values[i]);
+        }
+    }
+
+    /**
+     * End the sequence: write whatever is left of its summary. Does not flush the output.
+     */
+    void finish();
+}
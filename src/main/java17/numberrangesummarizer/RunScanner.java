@@ -0,0 +1,58 @@
+package numberrangesummarizer;
+
+/**
+ * Java 17 version of RunScanner (see src/main/java for the scalar one), packaged under
+ * META-INF/versions/17 of the multi-release jar.
+ *
+ * The Vector API is an incubator module that is only resolved when the JVM is started
+ * with --add-modules jdk.incubator.vector. Without it, touching VectorRunScanner would fail
+ * to link, so it is only loaded after the module has been found; otherwise this class
+ * behaves exactly like the scalar version. -Dnumberrangesummarizer.scalar=true forces
+ * the scalar loop (handy for comparing the two).
+ */
+final class RunScanner {
+
+    // Short runs are the common case in noisy data; scan those without vector set-up.
+    private static final int SCALAR_PREFIX = 8;
+
+    private static final boolean VECTORIZED = !Boolean.getBoolean("numberrangesummarizer.scalar")
+            && vectorModuleLoaded();
+
+    private RunScanner() {
+    }
+
+    /**
+     * Plain loop over the boot layer rather than findModule(), whose stream pipeline costs
+     * a noticeable share of a one-shot CLI run's startup.
+     */
+    private static boolean vectorModuleLoaded() {
+        for (Module module : ModuleLayer.boot().modules()) {
+            if ("jdk.incubator.vector".equals(module.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean vectorized() {
+        return VECTORIZED;
+    }
+
+    static int extend(final int[] values, final int from, final int to, final int step) {
+        int k = from;
+        final int prefixEnd = Math.min(to, from + SCALAR_PREFIX);
+        while (k < prefixEnd && values[k] - values[k - 1] == step) {
+            k++;
+        }
+        if (k < prefixEnd || k == to) {
+            return k;
+        }
+        if (VECTORIZED) {
+            return VectorRunScanner.extend(values, k, to, step);
+        }
+        while (k < to && values[k] - values[k - 1] == step) {
+            k++;
+        }
+        return k;
+    }
+}
@@ -0,0 +1,61 @@
+package numberrangesummarizer;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD run extension. Only loaded by RunScanner once jdk.incubator.vector is known to be present.
+ *
+ * Inside a run every value is predictable: values[k + i] == values[k - 1] + (i + 1) * step.
+ * So instead of subtracting neighbours one by one, each step loads a full vector of values,
+ * compares it lane-wise against that expected ramp, and stops at the first lane that differs.
+ * A long smooth run costs one load, one compare and one add per vector of values, with a
+ * single well-predicted branch.
+ */
+final class VectorRunScanner {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    // Lane i holds i + 1 (ascending ramp) or -(i + 1) (descending ramp).
+    private static final IntVector UP = ramp(1);
+    private static final IntVector DOWN = ramp(-1);
+
+    private VectorRunScanner() {
+    }
+
+    /**
+     * Same contract as RunScanner.extend; step must be +1 or -1.
+     */
+    static int extend(final int[] values, final int from, final int to, final int step) {
+        int k = from;
+        final int bound = to - LANES;
+        if (k <= bound) {
+            IntVector expected = IntVector.broadcast(SPECIES, values[k - 1]).add(step == 1 ? UP : DOWN);
+            final IntVector advance = IntVector.broadcast(SPECIES, step * LANES);
+            while (k <= bound) {
+                final VectorMask<Integer> breaks =
+                        IntVector.fromArray(SPECIES, values, k).compare(VectorOperators.NE, expected);
+                if (breaks.anyTrue()) {
+                    return k + breaks.firstTrue();
+                }
+                expected = expected.add(advance);
+                k += LANES;
+            }
+        }
+        while (k < to && values[k] - values[k - 1] == step) {
+            k++;
+        }
+        return k;
+    }
+
+    private static IntVector ramp(final int step) {
+        final int[] lanes = new int[LANES];
+        for (int i = 0; i < LANES; i++) {
+            lanes[i] = (i + 1) * step;
+        }
+        return IntVector.fromArray(SPECIES, lanes, 0);
+    }
+}
@@ -0,0 +1,115 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch mode: one output line per input line, in order, errors inline.
+ */
+@DisplayName("BatchProcessor")
+class BatchProcessorTest {
+
+    private final BatchProcessor batch = new BatchProcessor(new NumberRangeSummarizerImpl());
+
+    @Test
+    @DisplayName("every input line gets exactly one output line, in order")
+    void linesStayAligned() throws IOException {
+        String input = "1,2,3,4,6,5,4,3,2\n\n1,a,3\r\n-1,-2,-3\n9";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long lines = batch.run(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+
+        String nl = System.lineSeparator();
+        assertEquals(5, lines);
+        assertEquals("Result: 1-4, 6-2" + nl
+                + "Result: " + nl
+                + "Error: Invalid integer token: 'a' at position 2" + nl
+                + "Result: -1--3" + nl
+                + "Result: 9" + nl, out.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    @DisplayName("multi-threaded pipeline keeps input order even when lines finish out of order")
+    void pipelinePreservesOrder() throws IOException {
+        // Every 97th line is slow, so later blocks finish first on the other workers.
+        NumberRangeSummarizer delegate = new NumberRangeSummarizerImpl();
+        NumberRangeSummarizer unevenCost = new NumberRangeSummarizer() {
+            @Override
+            public Collection<Integer> collect(String input) {
+                return delegate.collect(input);
+            }
+
+            @Override
+            public int[] collectInts(CharSequence input) {
+                return delegate.collectInts(input);
+            }
+
+            @Override
+            public String summarizeCollection(Collection<Integer> input) {
+                return delegate.summarizeCollection(input);
+            }
+
+            @Override
+            public String summarize(IntSequence input) {
+                if (input.size() > 0 && input.get(0) % 97 == 0) {
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return delegate.summarize(input);
+            }
+        };
+
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        String nl = System.lineSeparator();
+        for (int i = 0; i < 5000; i++) {
+            input.append(i).append(',').append(i + 1).append(',').append(i + 5).append('\n');
+            expected.append("Result: ").append(i).append('-').append(i + 1).append(", ").append(i + 5).append(nl);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long lines = new BatchProcessor(unevenCost, 4, 2)
+                .run(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), out);
+        assertEquals(5000, lines);
+        assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    @DisplayName("with a cache, repeated lines give identical output and are served as hits")
+    void cachedLines() throws IOException {
+        SummaryCache cache = new SummaryCache(1 << 20);
+        BatchProcessor cached = new BatchProcessor(new NumberRangeSummarizerImpl(), 4, 8, cache);
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            input.append(i % 3 == 2 ? "1,x" : (i % 10) + ",5,6,7").append('\n');
+        }
+        byte[] bytes = input.toString().getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        batch.run(new ByteArrayInputStream(bytes), expected);
+        cached.run(new ByteArrayInputStream(bytes), actual);
+
+        assertEquals(expected.toString(StandardCharsets.UTF_8.name()), actual.toString(StandardCharsets.UTF_8.name()));
+        // Bad lines are looked up too, but never stored, so each one is a miss.
+        assertEquals(3000, cache.hits() + cache.misses());
+        assertTrue(cache.misses() <= 1000 + 10 + 8);
+    }
+
+    @Test
+    @DisplayName("empty input produces no output")
+    void emptyInput() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, batch.run(new ByteArrayInputStream(new byte[0]), out));
+        assertEquals(0, out.size());
+    }
+}
@@ -0,0 +1,99 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * --file mode: a bad token part-way must not leave a Result line that passes for a whole
+ * summary, and the failure must be reported to the caller.
+ */
+@DisplayName("CliCommands --file")
+class CliCommandsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("a clean file prints the whole summary")
+    void complete() throws IOException {
+        assertEquals("Result: 5-3, 1" + System.lineSeparator(), run(false, "5,4,3,1", true));
+        assertEquals("Result: 1, 3-5" + System.lineSeparator(), run(true, "5,4,3,1", true));
+    }
+
+    @Test
+    @DisplayName("a bad token marks the streamed Result line incomplete and fails")
+    void badToken() throws IOException {
+        assertEquals("Result: 5-3 (incomplete)" + System.lineSeparator(), run(false, "5,4,3,1,x", false));
+        assertEquals("Result: (incomplete)" + System.lineSeparator(), run(false, "x,1", false));
+        // Sorted mode only prints once the whole file is read, so there is nothing to take back.
+        assertEquals("", run(true, "5,4,3,1,x", false));
+    }
+
+    @Test
+    @DisplayName("batch mode fails on bad options and unreadable input, not on bad lines")
+    void batchStatus() throws IOException {
+        Path file = Files.write(dir.resolve("lines.txt"), "1,2,3\nx\n".getBytes(StandardCharsets.US_ASCII));
+        CliCommands commands = new CliCommands(new NumberRangeSummarizerImpl(), false);
+        String out = quietly(() -> assertTrue(commands.processBatch(new String[]{file.toString()})));
+        assertTrue(out.startsWith("Result: 1-3"), out);
+        quietly(() -> {
+            assertFalse(commands.processBatch(new String[]{file.toString(), "--bogus"}));
+            assertFalse(commands.processBatch(new String[]{"--threads", "two"}));
+            assertFalse(commands.processBatch(new String[]{"--threads", "0"}));
+            assertFalse(commands.processBatch(new String[]{"--cache-bytes", "-1"}));
+            assertFalse(commands.processBatch(new String[]{dir.resolve("missing.txt").toString()}));
+        });
+    }
+
+    @Test
+    @DisplayName("serve mode fails on bad options and on a port it cannot bind")
+    void serveStatus() throws IOException {
+        CliCommands commands = new CliCommands(new NumberRangeSummarizerImpl(), false);
+        try (ServerSocket taken = new ServerSocket(0)) {
+            quietly(() -> {
+                assertFalse(commands.serve(new String[0]));
+                assertFalse(commands.serve(new String[]{"http"}));
+                assertFalse(commands.serve(new String[]{"8080", "--bogus"}));
+                assertFalse(commands.serve(new String[]{"8080", "--threads", "0"}));
+                assertFalse(commands.serve(new String[]{"8080", "--cache-bytes", "lots"}));
+                assertFalse(commands.serve(new String[]{Integer.toString(taken.getLocalPort())}));
+            });
+        }
+    }
+
+    private String run(boolean sorted, String csv, boolean expectSuccess) throws IOException {
+        Path file = Files.write(dir.resolve("input.csv"), csv.getBytes(StandardCharsets.US_ASCII));
+        NumberRangeSummarizer summarizer = sorted ? new SortedRangeSummarizer() : new NumberRangeSummarizerImpl();
+        return quietly(() -> assertEquals(expectSuccess,
+                new CliCommands(summarizer, sorted).processFileAndPrint(file.toString())));
+    }
+
+    /**
+     * Runs body with stdout captured (returned) and stderr discarded.
+     */
+    private static String quietly(Runnable body) throws IOException {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out, true, "UTF-8"));
+            System.setErr(new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+            body.run();
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        return out.toString("UTF-8");
+    }
+}
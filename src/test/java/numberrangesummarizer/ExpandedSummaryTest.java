@@ -0,0 +1,119 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Expanding summaries back into sequences: exact round trips, random access, and huge
+ * ranges that are never materialised.
+ */
+@DisplayName("ExpandedSummary")
+class ExpandedSummaryTest {
+
+    private final NumberRangeSummarizer summarizer = new NumberRangeSummarizerImpl();
+
+    @Test
+    @DisplayName("expanding a summary gives back the original sequence")
+    void roundTrip() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            int[] values = new int[random.nextInt(300)];
+            int v = random.nextInt(1000) - 500;
+            for (int i = 0; i < values.length; i++) {
+                v += random.nextInt(5) - 2;
+                values[i] = v;
+            }
+            ExpandedSummary expanded = ExpandedSummary.expand(summarizer.summarize(values));
+
+            assertEquals(values.length, expanded.size());
+            assertArrayEquals(values, expanded.stream().toArray());
+            int[] viaIterator = new int[values.length];
+            PrimitiveIterator.OfInt it = expanded.iterator();
+            for (int i = 0; i < values.length; i++) {
+                viaIterator[i] = it.nextInt();
+            }
+            assertFalse(it.hasNext());
+            assertArrayEquals(values, viaIterator);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(values[i], expanded.get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("descending runs and negative numbers")
+    void descendingAndNegative() {
+        ExpandedSummary expanded = ExpandedSummary.expand("1-4, 6-2, -1--3, 7");
+        assertArrayEquals(new int[]{1, 2, 3, 4, 6, 5, 4, 3, 2, -1, -2, -3, 7}, expanded.stream().toArray());
+        assertEquals(4, expanded.runCount());
+    }
+
+    @Test
+    @DisplayName("empty summary expands to nothing")
+    void empty() {
+        ExpandedSummary expanded = ExpandedSummary.expand("  ");
+        assertEquals(0, expanded.size());
+        assertFalse(expanded.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> expanded.iterator().nextInt());
+        assertThrows(IndexOutOfBoundsException.class, () -> expanded.get(0));
+    }
+
+    @Test
+    @DisplayName("a two-billion-value range is addressable without being expanded")
+    void hugeRange() {
+        ExpandedSummary expanded = ExpandedSummary.expand("1-2000000000, 5, -2147483648-2147483647");
+        assertEquals(2_000_000_001L + (1L << 32), expanded.size());
+        assertEquals(1, expanded.get(0));
+        assertEquals(2_000_000_000, expanded.get(1_999_999_999L));
+        assertEquals(5, expanded.get(2_000_000_000L));
+        assertEquals(Integer.MIN_VALUE, expanded.get(2_000_000_001L));
+        assertEquals(Integer.MAX_VALUE, expanded.get(expanded.size() - 1));
+
+        PrimitiveIterator.OfInt it = expanded.iterator(1_999_999_998L);
+        assertEquals(1_999_999_999, it.nextInt());
+        assertEquals(2_000_000_000, it.nextInt());
+        assertEquals(5, it.nextInt());
+        assertEquals(Integer.MIN_VALUE, it.nextInt());
+
+        assertArrayEquals(new int[]{1, 2, 3}, expanded.stream().limit(3).toArray());
+    }
+
+    @Test
+    @DisplayName("parallel streams split by position and keep order")
+    void parallel() {
+        ExpandedSummary expanded = ExpandedSummary.expand("0-99999, 200000-100000, 7");
+        int[] expected = expanded.stream().toArray();
+        assertArrayEquals(expected, expanded.stream().parallel().toArray());
+        assertEquals(Arrays.stream(expected).asLongStream().sum(), expanded.stream().parallel().asLongStream().sum());
+    }
+
+    @Test
+    @DisplayName("decoded binary records expand the same way")
+    void fromRuns() {
+        int[] values = summarizer.collectInts("3,4,5,9,8,8");
+        ExpandedSummary expanded = ExpandedSummary.of(RunCodec.decode(ByteBuffer.wrap(
+            RunCodec.toBytes(NumberRangeSummarizerImpl.toRuns(IntSequence.of(values), 0, values.length)))));
+        assertArrayEquals(values, expanded.stream().toArray());
+    }
+
+    @Test
+    @DisplayName("malformed summaries are rejected with the offending run")
+    void malformed() {
+        NumberFormatException e = assertThrows(NumberFormatException.class,
+            () -> ExpandedSummary.expand("1-4, 6-x, 9"));
+        assertEquals("Invalid range token: '6-x' at position 5", e.getMessage());
+        assertThrows(NumberFormatException.class, () -> ExpandedSummary.expand("1-4,,5"));
+        assertThrows(NumberFormatException.class, () -> ExpandedSummary.expand("1 2"));
+        assertThrows(NumberFormatException.class, () -> ExpandedSummary.expand("1-"));
+        assertThrows(NumberFormatException.class, () -> ExpandedSummary.expand("2147483648"));
+        assertThrows(IllegalArgumentException.class, () -> ExpandedSummary.expand(null));
+    }
+}
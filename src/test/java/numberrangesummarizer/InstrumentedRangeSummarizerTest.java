@@ -0,0 +1,151 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Instrumentation: identical results, correct counts and histograms, JMX and text views,
+ * and nothing recorded while disabled.
+ */
+@DisplayName("InstrumentedRangeSummarizer")
+class InstrumentedRangeSummarizerTest {
+
+    private final SummarizerMetrics metrics = new SummarizerMetrics();
+    private final NumberRangeSummarizer summarizer =
+        new InstrumentedRangeSummarizer(new NumberRangeSummarizerImpl(), metrics);
+
+    @Test
+    @DisplayName("results are the delegate's and every phase is counted")
+    void countsAndPhases() {
+        int[] values = summarizer.collectInts("1,2,3,4,6,5,4,3,2,9");
+        assertEquals("1-4, 6-2, 9", summarizer.summarize(values));
+        assertEquals("1-4, 6-2, 9", summarizer.summarizeCollection(summarizer.collect("1,2,3,4,6,5,4,3,2,9")));
+
+        assertEquals(2, metrics.getCalls());
+        assertEquals(20, metrics.getElementsParsed());
+        assertEquals(6, metrics.getRunsEmitted());
+        assertEquals(2, metrics.phaseCount(SummarizerMetrics.Phase.COLLECT));
+        assertEquals(2, metrics.phaseCount(SummarizerMetrics.Phase.TO_RUNS));
+        assertEquals(2, metrics.phaseCount(SummarizerMetrics.Phase.RENDER));
+
+        // Lengths 4, 5 and 1, twice: bucket 1 = {1}, bucket 3 = [4, 8).
+        assertEquals(2, metrics.runLengthBucket(1));
+        assertEquals(4, metrics.runLengthBucket(3));
+    }
+
+    @Test
+    @DisplayName("a run that wraps around the int range is recorded with its real length")
+    void wrappedRunLength() {
+        // int differences wrap: a +1 run of three values, then a -1 run of two.
+        assertEquals("2147483647--2147483647, -2147483648-2147483647",
+                summarizer.summarize(new int[]{Integer.MAX_VALUE, Integer.MIN_VALUE,
+                        Integer.MIN_VALUE + 1, Integer.MIN_VALUE, Integer.MAX_VALUE}));
+        assertEquals(2, metrics.getRunsEmitted());
+        // Lengths 3 and 2 both fall in bucket 2 = [2, 4); nothing near 2^32.
+        assertEquals(2, metrics.runLengthBucket(2));
+        String text = metrics.snapshot();
+        assertTrue(text.contains("summarizer_run_length_sum 5\n"), text);
+    }
+
+    @Test
+    @DisplayName("parse failures are counted and still thrown")
+    void parseFailures() {
+        assertThrows(NumberFormatException.class, () -> summarizer.collectInts("1,x"));
+        assertThrows(NumberFormatException.class, () -> summarizer.collect("y"));
+        assertEquals(2, metrics.getParseFailures());
+        assertEquals(0, metrics.getElementsParsed());
+    }
+
+    @Test
+    @DisplayName("summarizeTo and the parallel delegate give identical output")
+    void streamingAndParallel() {
+        NumberRangeSummarizer parallel = new InstrumentedRangeSummarizer(
+            new ParallelRangeSummarizer(ForkJoinPool.commonPool(), 64), metrics);
+        int[] values = new int[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i / 100) % 2 == 0 ? i : -i;
+        }
+        StringBuilder out = new StringBuilder();
+        parallel.summarizeTo(IntSequence.of(values), out);
+        assertEquals(new NumberRangeSummarizerImpl().summarize(values), out.toString());
+        assertEquals(1, metrics.getCalls());
+        assertEquals(new NumberRangeSummarizerImpl().runs(IntSequence.of(values)).size(), metrics.getRunsEmitted());
+    }
+
+    @Test
+    @DisplayName("streamed summaries record calls, phases and runs when they finish")
+    void streamed() {
+        StringBuilder out = new StringBuilder();
+        SummarySink sink = summarizer.streamTo(out);
+        sink.accept(new int[]{1, 2, 3, 4, 6, 5, 4, 3, 2}, 0, 9);
+        sink.accept(9);
+        assertEquals(0, metrics.getCalls());
+        sink.finish();
+        sink.accept(7);
+        sink.finish();
+        assertEquals("1-4, 6-2, 97", out.toString());
+
+        assertEquals(2, metrics.getCalls());
+        assertEquals(11, metrics.getElementsParsed());
+        assertEquals(4, metrics.getRunsEmitted());
+        assertEquals(2, metrics.phaseCount(SummarizerMetrics.Phase.COLLECT));
+        assertEquals(2, metrics.phaseCount(SummarizerMetrics.Phase.TO_RUNS));
+        assertEquals(2, metrics.phaseCount(SummarizerMetrics.Phase.RENDER));
+        // Lengths 4, 5, 1 and 1: bucket 1 = {1}, bucket 3 = [4, 8).
+        assertEquals(2, metrics.runLengthBucket(1));
+        assertEquals(2, metrics.runLengthBucket(3));
+
+        // Set semantics are measured the same way.
+        SummarySink sorted = new InstrumentedRangeSummarizer(new SortedRangeSummarizer(), metrics).streamTo(out);
+        sorted.accept(new int[]{3, 1, 2, 2, 5}, 0, 5);
+        sorted.finish();
+        assertEquals("1-4, 6-2, 971-3, 5", out.toString());
+        assertEquals(6, metrics.getRunsEmitted());
+    }
+
+    @Test
+    @DisplayName("disabled metrics record nothing")
+    void disabled() {
+        metrics.setEnabled(false);
+        assertEquals("1-3", summarizer.summarize(summarizer.collectInts("1,2,3")));
+        assertThrows(NumberFormatException.class, () -> summarizer.collectInts("x"));
+        assertEquals(0, metrics.getCalls() + metrics.getElementsParsed() + metrics.getParseFailures());
+    }
+
+    @Test
+    @DisplayName("text snapshot uses the exposition format with cumulative buckets")
+    void snapshot() {
+        summarizer.summarize(summarizer.collectInts("5,6,7,8,1"));
+        String text = metrics.snapshot();
+        assertTrue(text.contains("summarizer_calls_total 1\n"), text);
+        assertTrue(text.contains("summarizer_runs_emitted_total 2\n"), text);
+        assertTrue(text.contains("summarizer_run_length_bucket{le=\"1\"} 1\n"), text);
+        assertTrue(text.contains("summarizer_run_length_bucket{le=\"+Inf\"} 2\n"), text);
+        assertTrue(text.contains("summarizer_run_length_sum 5\n"), text);
+        assertTrue(text.contains("summarizer_phase_nanos_count{phase=\"toRuns\"} 1\n"), text);
+        assertTrue(Arrays.stream(text.split("\n")).allMatch(l -> l.startsWith("#") || l.matches("\\S+ \\d+")), text);
+    }
+
+    @Test
+    @DisplayName("counters are readable as a platform MBean")
+    void mbean() throws Exception {
+        ObjectName name = metrics.register("test");
+        try {
+            summarizer.summarize(new int[]{1, 2, 3});
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "Calls"));
+            assertEquals(1L, server.getAttribute(name, "RunsEmitted"));
+            assertTrue(((String) server.getAttribute(name, "Snapshot")).contains("summarizer_calls_total 1"));
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 64-bit summaries: unit mode against the int summarizer, exact differences at the
+ * extremes, stride runs, and round trips through parse().
+ */
+@DisplayName("LongRangeSummarizer")
+class LongRangeSummarizerTest {
+
+    private final LongRangeSummarizer unit = new LongRangeSummarizer();
+    private final LongRangeSummarizer strides = new LongRangeSummarizer(true);
+
+    @Test
+    @DisplayName("unit mode writes exactly what the int summarizer writes")
+    void unitMatchesInt() {
+        NumberRangeSummarizer summarizer = new NumberRangeSummarizerImpl();
+        Random random = new Random(20);
+        for (int round = 0; round < 300; round++) {
+            int[] values = new int[random.nextInt(200)];
+            int v = random.nextInt(2000) - 1000;
+            for (int i = 0; i < values.length; i++) {
+                v += random.nextInt(5) - 2;
+                values[i] = v;
+            }
+            long[] longs = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                longs[i] = values[i];
+            }
+            assertEquals(summarizer.summarize(values), unit.summarize(longs));
+        }
+        assertEquals("1-4, 6-2", unit.summarize(unit.collect("1,2,3,4,6,5,4,3,2")));
+    }
+
+    @Test
+    @DisplayName("differences never wrap around")
+    void noOverflow() {
+        assertEquals("2147483647, -2147483648",
+                unit.summarize(new long[]{Integer.MAX_VALUE, Integer.MIN_VALUE}));
+        assertEquals("2147483646-2147483648", unit.summarize(new long[]{2147483646L, 2147483647L, 2147483648L}));
+        assertEquals("9223372036854775807, -9223372036854775808",
+                unit.summarize(new long[]{Long.MAX_VALUE, Long.MIN_VALUE}));
+        assertEquals("9223372036854775806-9223372036854775807, -9223372036854775808--9223372036854775807",
+                unit.summarize(new long[]{Long.MAX_VALUE - 1, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1}));
+        // A huge but exact step is fine; one that overflows is a jump.
+        long half = Long.MAX_VALUE / 2;
+        assertEquals("-" + (half * 2) + "-" + (half * 2) + ":" + (half * 2),
+                strides.summarize(new long[]{-half * 2, 0, half * 2}));
+        assertEquals("-9223372036854775808, 0, 9223372036854775807",
+                strides.summarize(new long[]{Long.MIN_VALUE, 0, Long.MAX_VALUE}));
+    }
+
+    @Test
+    @DisplayName("stride mode compresses constant steps into from-to:step")
+    void strideRuns() {
+        assertEquals("100-112:4, 7-5", strides.summarize(new long[]{100, 104, 108, 112, 7, 6, 5}));
+        assertEquals("50-20:10", strides.summarize(new long[]{50, 40, 30, 20}));
+        assertEquals("1-9:4", strides.summarize(new long[]{1, 5, 9}));
+        // Stride runs need three values; +1/-1 runs still need two.
+        assertEquals("1, 5", strides.summarize(new long[]{1, 5}));
+        assertEquals("1, 5-7", strides.summarize(new long[]{1, 5, 6, 7}));
+        assertEquals("1-2, 4-8:2", strides.summarize(new long[]{1, 2, 4, 6, 8}));
+        assertEquals("3, 3, 3", strides.summarize(new long[]{3, 3, 3}));
+        assertEquals("", strides.summarize(new long[0]));
+
+        long[] ids = new long[100_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 7_000_000_000L + 10L * i;
+        }
+        assertEquals("7000000000-7000999990:10", strides.summarize(ids));
+        assertEquals(ids.length, unit.summarize(ids).split(", ").length);
+    }
+
+    @Test
+    @DisplayName("summaries of both modes parse back to the original values")
+    void roundTrip() {
+        Random random = new Random(2);
+        for (int round = 0; round < 300; round++) {
+            long[] values = new long[random.nextInt(100)];
+            long v = random.nextLong();
+            long step = random.nextInt(7) - 3;
+            for (int i = 0; i < values.length; i++) {
+                if (random.nextInt(6) == 0) {
+                    step = random.nextInt(2) == 0 ? random.nextInt(21) - 10 : random.nextLong() >> 2;
+                }
+                v += step;
+                values[i] = v;
+            }
+            for (LongRangeSummarizer summarizer : new LongRangeSummarizer[]{unit, strides}) {
+                String summary = summarizer.summarize(values);
+                List<LongRun> runs = LongRangeSummarizer.parse(summary);
+                assertEquals(summarizer.runs(values, 0, values.length), runs);
+                assertArrayEquals(values, expand(runs), summary);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("malformed input and summaries are rejected with positions")
+    void errors() {
+        NumberFormatException bad = assertThrows(NumberFormatException.class, () -> unit.collect("1,x"));
+        assertEquals("Invalid integer token: 'x' at position 2", bad.getMessage());
+        assertThrows(NumberFormatException.class, () -> unit.collect("9223372036854775808"));
+        assertArrayEquals(new long[]{Long.MIN_VALUE, 5}, unit.collect(" -9223372036854775808 , +5,"));
+
+        NumberFormatException step = assertThrows(NumberFormatException.class,
+                () -> LongRangeSummarizer.parse("0, 1-8:3"));
+        assertEquals("Invalid range token: '1-8:3' at position 3", step.getMessage());
+        assertThrows(NumberFormatException.class, () -> LongRangeSummarizer.parse("1-9:0"));
+        assertThrows(NumberFormatException.class, () -> LongRangeSummarizer.parse("1-9:-4"));
+        // Strides are not part of the int summary grammar.
+        assertThrows(NumberFormatException.class, () -> ExpandedSummary.expand("1-9:4"));
+        assertThrows(IndexOutOfBoundsException.class, () -> unit.summarize(new long[3], 2, 2));
+    }
+
+    private static long[] expand(List<LongRun> runs) {
+        int n = 0;
+        long[] out = new long[16];
+        for (LongRun run : runs) {
+            long step = run.from() <= run.to() ? run.step() : -run.step();
+            for (long v = run.from(); ; v += step) {
+                if (n == out.length) {
+                    out = Arrays.copyOf(out, n * 2);
+                }
+                out[n++] = v;
+                if (v == run.to()) {
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
@@ -0,0 +1,111 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory-mapped file input: same values and errors as the in-memory parser,
+ * regardless of where the mapping windows fall.
+ */
+@DisplayName("MappedCsvReader")
+class MappedCsvReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private final NumberRangeSummarizer summarizer = new NumberRangeSummarizerImpl();
+
+    @Test
+    @DisplayName("every window size gives the same values as collectInts")
+    void windowBoundariesDoNotMatter() throws IOException {
+        String csv = " 1,2,3, 10 ,-2147483648,,2147483647\n,-7,+8 ,\t9,";
+        Path file = write(csv);
+        int[] expected = summarizer.collectInts(csv);
+        for (int window = 1; window <= csv.length() + 1; window++) {
+            IntArrayBuilder out = new IntArrayBuilder();
+            MappedCsvReader.forEach(file, out::add, window);
+            assertArrayEquals(expected, out.toArray(), "window " + window);
+        }
+    }
+
+    @Test
+    @DisplayName("runs crossing window boundaries summarize like the in-memory path")
+    void summaryAcrossWindows() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int v = 1; v <= 5000; v++) {
+            csv.append(v).append(',');
+        }
+        for (int v = 9000; v >= 8000; v--) {
+            csv.append(v).append(',');
+        }
+        Path file = write(csv.toString());
+        StringBuilder out = new StringBuilder();
+        StreamingRangeSummarizer streaming = new StreamingRangeSummarizer(out);
+        MappedCsvReader.forEach(file, streaming, 4093);
+        streaming.flush();
+        assertEquals("1-5000, 9000-8000", out.toString());
+    }
+
+    @Test
+    @DisplayName("bad tokens report the byte offset, even when split across windows")
+    void errors() throws IOException {
+        Path file = write("1,2,  3x ,4");
+        for (int window = 1; window <= 12; window++) {
+            final int w = window;
+            NumberFormatException e = assertThrows(NumberFormatException.class,
+                    () -> MappedCsvReader.forEach(file, v -> { }, w));
+            assertEquals("Invalid integer token: '3x' at position 6", e.getMessage());
+        }
+        Path overflow = write("1,2147483648");
+        assertThrows(NumberFormatException.class, () -> MappedCsvReader.forEach(overflow, v -> { }));
+        Path sign = write("5,-");
+        assertThrows(NumberFormatException.class, () -> MappedCsvReader.forEach(sign, v -> { }));
+    }
+
+    @Test
+    @DisplayName("tokens only Integer.parseInt understands still go through the slow path")
+    void nonAsciiDigits() throws IOException {
+        Path file = write("1,٢٣,4");
+        IntArrayBuilder out = new IntArrayBuilder();
+        MappedCsvReader.forEach(file, out::add, 3);
+        assertArrayEquals(new int[]{1, 23, 4}, out.toArray());
+    }
+
+    @Test
+    @DisplayName("padding after a slow-path token does not count against its length cap")
+    void longPaddingAfterSlowToken() throws IOException {
+        String padding = " ".repeat(10_000);
+        IntArrayBuilder out = new IntArrayBuilder();
+        MappedCsvReader.forEach(write("1,٢٣" + padding + ",4,٥" + padding), out::add);
+        assertArrayEquals(new int[]{1, 23, 4, 5}, out.toArray());
+
+        Path garbage = write("1," + "x".repeat(10_000) + ",4");
+        NumberFormatException e = assertThrows(NumberFormatException.class,
+                () -> MappedCsvReader.forEach(garbage, v -> { }));
+        assertTrue(e.getMessage().endsWith("…' at position 2"), e.getMessage());
+        Path split = write("1,٢ " + padding + "3,4");
+        assertThrows(NumberFormatException.class, () -> MappedCsvReader.forEach(split, v -> { }));
+    }
+
+    @Test
+    @DisplayName("empty file yields nothing")
+    void emptyFile() throws IOException {
+        IntArrayBuilder out = new IntArrayBuilder();
+        MappedCsvReader.forEach(write(""), out::add);
+        assertEquals(0, out.size());
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(dir, "input", ".csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
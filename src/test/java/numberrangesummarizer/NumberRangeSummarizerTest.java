@@ -49,6 +49,32 @@ class NumberRangeSummarizerTest {
                 NumberFormatException.class,
                 () -> s.collect("1,a,3"));
 
+        i = passOrFail(failures, i, "empty tokens and surrounding whitespace are skipped",
+                () -> assertArrayEquals(new int[]{1, 2, 3}, s.collectInts(" ,1,, 2 ,\t+3,")),
+                " ,1,, 2 ,\\t+3,", "[1, 2, 3]");
+
+        i = passOrFail(failures, i, "int bounds parse exactly",
+                () -> assertArrayEquals(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE},
+                        s.collectInts("-2147483648,2147483647")),
+                "-2147483648,2147483647", "[MIN, MAX]");
+
+        i = passOrFail(failures, i, "bad token error names the token and its position",
+                () -> {
+                    NumberFormatException e = assertThrows(NumberFormatException.class,
+                            () -> s.collectInts("1, 2,  3x ,4"));
+                    assertEquals("Invalid integer token: '3x' at position 7", e.getMessage());
+                }, "1, 2,  3x ,4", "'3x' at position 7");
+
+        i = passOrFailExpectedThrow(failures, i,
+                "caught expected NumberFormatException for overflow",
+                NumberFormatException.class,
+                () -> s.collectInts("1,2147483648"));
+
+        i = passOrFailExpectedThrow(failures, i,
+                "caught expected NumberFormatException for embedded space",
+                NumberFormatException.class,
+                () -> s.collectInts("1,2 3"));
+
         endBlock("UNIT collect()", failures.isEmpty());
 
         // ---------------- summarizeCollection() ----------------
@@ -104,8 +130,62 @@ class NumberRangeSummarizerTest {
         k = passOrFail(failures, k, "collect → summarize (1,2,3,5,4 → 1-3, 5-4)",
                 () -> assertEquals("1-3, 5-4", s.summarizeCollection(s.collect("1,2,3,5,4"))),
                 "1,2,3,5,4", "1-3, 5-4");
+        k = passOrFail(failures, k, "collect returns a mutable list (add/remove/set/sort) still summarized",
+                () -> {
+                    Collection<Integer> nums = s.collect("5,3,4");
+                    List<Integer> list = (List<Integer>) nums;
+                    list.add(1);
+                    list.add(0, 2);
+                    list.remove(Integer.valueOf(5));
+                    list.set(0, 0);
+                    assertEquals(Arrays.asList(0, 3, 4, 1), list);
+                    assertEquals("0, 3-4, 1", s.summarizeCollection(list));
+                    Collections.sort(list);
+                    assertEquals("0-1, 3-4", s.summarizeCollection(list));
+                    list.clear();
+                    assertEquals("", s.summarizeCollection(list));
+                    assertThrows(NullPointerException.class, () -> list.add(null));
+                }, "5,3,4 then edits", "0, 3-4, 1 → sorted 0-1, 3-4");
         endBlock("UNIT integration", failures.isEmpty());
 
+        // ---------------- primitive API ----------------
+        System.out.println("\n── UNIT cases: primitive API ──────────────────────────────");
+        int p = 1;
+        p = passOrFail(failures, p, "collectInts preserves order and negatives",
+                () -> assertArrayEquals(new int[]{3, -2, 1, 1}, s.collectInts(" 3, -2,1 ,1 ")),
+                "3, -2,1 ,1", "[3, -2, 1, 1]");
+
+        p = passOrFail(failures, p, "collectInts blank/null → empty array",
+                () -> {
+                    assertEquals(0, s.collectInts(null).length);
+                    assertEquals(0, s.collectInts("  ").length);
+                }, "(blank)", "[]");
+
+        p = passOrFailExpectedThrow(failures, p,
+                "caught expected NumberFormatException for bad token (primitive)",
+                NumberFormatException.class,
+                () -> s.collectInts("1,a,3"));
+
+        p = passOrFail(failures, p, "summarize(int[], offset, length) uses only the slice",
+                () -> assertEquals("2-4, 6-5", s.summarize(new int[]{99, 2, 3, 4, 6, 5, 99}, 1, 5)),
+                "[99 | 2,3,4,6,5 | 99]", "2-4, 6-5");
+
+        p = passOrFail(failures, p, "primitive and boxed paths agree (duplicates, singletons)",
+                () -> {
+                    int[] values = {1, 1, 2, 3, 7, 5, 4, 4, 3};
+                    List<Integer> boxed = new ArrayList<>();
+                    for (int v : values) boxed.add(v);
+                    assertEquals(s.summarizeCollection(boxed), s.summarize(values));
+                    assertEquals("1, 1-3, 7, 5-4, 4-3", s.summarize(values));
+                }, "1,1,2,3,7,5,4,4,3", "1, 1-3, 7, 5-4, 4-3");
+
+        p = passOrFailExpectedThrow(failures, p,
+                "caught expected IndexOutOfBoundsException for bad slice",
+                IndexOutOfBoundsException.class,
+                () -> s.summarize(new int[]{1, 2}, 1, 2));
+
+        endBlock("UNIT primitive API", failures.isEmpty());
+
         // ---------------- Performance (light) ----------------
         System.out.println("\n── UNIT cases: performance (light) ────────────────────────");
         int m = 1;
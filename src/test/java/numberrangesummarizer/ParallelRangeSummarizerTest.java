@@ -0,0 +1,112 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fork/join summarizer must be byte-identical to the sequential one,
+ * whatever the chunk size and wherever the chunk boundaries fall.
+ */
+@DisplayName("ParallelRangeSummarizer")
+class ParallelRangeSummarizerTest {
+
+    private static ForkJoinPool pool;
+    private final NumberRangeSummarizer sequential = new NumberRangeSummarizerImpl();
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("boundary cases from the unit suite, every chunk size")
+    void edgeCases() {
+        String[] inputs = {
+            "7", "1,2,3,4,6,5,4,3,2", "2,3,5,4", "1,1,2,3", "1,3,5", "5,6,5,4",
+            "-2,-1,0,1,5", "1,2,1,2,1,2,1,2", "3,3,3,3", "1,2,3,2,1,2,3", "10,8,6,7,8"
+        };
+        for (String input : inputs) {
+            int[] values = sequential.collectInts(input);
+            String expected = sequential.summarize(values);
+            for (int chunk = 1; chunk <= values.length; chunk++) {
+                NumberRangeSummarizer parallel = new ParallelRangeSummarizer(pool, chunk);
+                assertEquals(expected, parallel.summarize(values), input + " with chunk " + chunk);
+                assertEquals(expected, parallel.summarizeCollection(sequential.collect(input)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("random walks with ±1 steps, duplicates and jumps")
+    void randomWalks() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int[] values = new int[1 + random.nextInt(400)];
+            values[0] = random.nextInt(20) - 10;
+            for (int i = 1; i < values.length; i++) {
+                int r = random.nextInt(10);
+                int step = r < 4 ? 1 : r < 8 ? -1 : r < 9 ? 0 : random.nextInt(7) - 3;
+                values[i] = values[i - 1] + step;
+            }
+            String expected = sequential.summarize(values);
+            int chunk = 1 + random.nextInt(17);
+            assertEquals(expected, new ParallelRangeSummarizer(pool, chunk).summarize(values),
+                    "chunk " + chunk + " for " + Arrays.toString(values));
+        }
+    }
+
+    @Test
+    @DisplayName("long zigzag keeps shifting run boundaries and still matches")
+    void zigzag() {
+        int[] values = new int[10_001];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 2;
+        }
+        String expected = sequential.summarize(values);
+        assertEquals(expected, new ParallelRangeSummarizer(pool, 333).summarize(values));
+        assertEquals(expected, new ParallelRangeSummarizer(pool, 2).summarize(values));
+    }
+
+    @Test
+    @DisplayName("parallel parsing keeps order and matches the sequential parser")
+    void parallelParse() {
+        String input = " 1,2,,3 , -4,5,\t6,7,2147483647,-2147483648,,8,9,10,11,12,";
+        int[] expected = sequential.collectInts(input);
+        for (int chars = 1; chars <= input.length(); chars++) {
+            NumberRangeSummarizer parallel = new ParallelRangeSummarizer(pool, 3, chars);
+            assertArrayEquals(expected, parallel.collectInts(input), "parse chunk " + chars);
+            assertIterableEquals(sequential.collect(input), parallel.collect(input));
+        }
+    }
+
+    @Test
+    @DisplayName("parallel parsing reports the first bad token in input order")
+    void parallelParseErrors() {
+        String input = "1,2,3,4,x5,6,7,8,9,y10,11";
+        NumberRangeSummarizer parallel = new ParallelRangeSummarizer(pool, 3, 4);
+        NumberFormatException e = assertThrows(NumberFormatException.class, () -> parallel.collectInts(input));
+        assertEquals("Invalid integer token: 'x5' at position 8", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("argument checks")
+    void arguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelRangeSummarizer(pool, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelRangeSummarizer(null, 8));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelRangeSummarizer().summarizeCollection(null));
+        assertEquals("", new ParallelRangeSummarizer().summarize(new int[0]));
+    }
+}
@@ -0,0 +1,156 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shard summaries: any split, combined in any grouping, equals the one-pass summary, and
+ * the wire form round-trips.
+ */
+@DisplayName("PartialSummary")
+class PartialSummaryTest {
+
+    private final NumberRangeSummarizerImpl summarizer = new NumberRangeSummarizerImpl();
+
+    @Test
+    @DisplayName("combining shards reproduces the one-pass runs, however they are grouped")
+    void anySplitAnyGrouping() {
+        Random random = new Random(24);
+        for (int round = 0; round < 500; round++) {
+            int[] values = values(random, random.nextInt(300));
+            List<Run> expected = summarizer.runs(IntSequence.of(values));
+
+            List<PartialSummary> shards = new ArrayList<>();
+            for (int i = 0; i < values.length; ) {
+                // Empty and one-value shards included.
+                int n = Math.min(values.length - i, random.nextInt(8));
+                shards.add(PartialSummary.of(Arrays.copyOfRange(values, i, i + n)));
+                i += n;
+            }
+
+            PartialSummary leftFold = PartialSummary.empty();
+            for (PartialSummary shard : shards) {
+                leftFold = leftFold.combine(shard);
+            }
+            PartialSummary rightFold = PartialSummary.empty();
+            for (int i = shards.size() - 1; i >= 0; i--) {
+                rightFold = PartialSummary.combine(shards.get(i), rightFold);
+            }
+
+            assertEquals(expected, leftFold.runs());
+            assertEquals(expected, rightFold.runs());
+            assertEquals(expected, tree(shards, 0, shards.size()).runs());
+            assertEquals(expected, PartialSummary.combineAll(shards).runs());
+            assertEquals(summarizer.summarize(values), leftFold.summary());
+        }
+    }
+
+    @Test
+    @DisplayName("the boundary can re-cut the right shard's runs")
+    void boundaryShifts() {
+        PartialSummary left = PartialSummary.of(new int[]{5});
+        PartialSummary right = PartialSummary.of(new int[]{6, 5, 4});
+        assertEquals("6-4", right.summary());
+        assertEquals("5-6, 5-4", left.combine(right).summary());
+
+        // Zigzag: the shift ripples through every interior run of the right shard.
+        PartialSummary zig = PartialSummary.of(new int[]{2, 1, 2, 1, 2, 1});
+        assertEquals("1-2, 1-2, 1-2, 1", PartialSummary.of(new int[]{1}).combine(zig).summary());
+
+        // The open run's direction matters: 1-3 takes 4, 3-1 does not.
+        PartialSummary four = PartialSummary.of(new int[]{4});
+        assertEquals("1-4", PartialSummary.of(new int[]{1, 2, 3}).combine(four).summary());
+        assertEquals("3-1, 4", PartialSummary.of(new int[]{3, 2, 1}).combine(four).summary());
+        // int differences wrap, as in summarizeCollection.
+        assertEquals(summarizer.summarize(new int[]{Integer.MAX_VALUE, Integer.MIN_VALUE}),
+                PartialSummary.of(new int[]{Integer.MAX_VALUE}).combine(PartialSummary.of(new int[]{Integer.MIN_VALUE})).summary());
+    }
+
+    @Test
+    @DisplayName("first, interior and last runs")
+    void parts() {
+        PartialSummary partial = PartialSummary.of(summarizer.collectInts("1,2,3,7,9,8,20"));
+        assertEquals(new Run(1, 3), partial.firstRun());
+        assertEquals(List.of(new Run(7, 7), new Run(9, 8)), partial.interiorRuns());
+        assertEquals(new Run(20, 20), partial.lastRun());
+        assertEquals(4, partial.runCount());
+
+        PartialSummary single = PartialSummary.of(new int[]{4, 5});
+        assertEquals(single.firstRun(), single.lastRun());
+        assertTrue(single.interiorRuns().isEmpty());
+
+        PartialSummary empty = PartialSummary.of(new int[0]);
+        assertSame(PartialSummary.empty(), empty);
+        assertTrue(empty.isEmpty());
+        assertEquals("", empty.summary());
+        assertThrows(NoSuchElementException.class, empty::firstRun);
+        assertThrows(NoSuchElementException.class, empty::lastRun);
+        assertThrows(UnsupportedOperationException.class, () -> partial.runs().add(new Run(0, 0)));
+    }
+
+    @Test
+    @DisplayName("the wire form round-trips and rejects bad data")
+    void serialization() {
+        Random random = new Random(5);
+        ByteBuffer stream = ByteBuffer.allocate(1 << 16);
+        List<PartialSummary> sent = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            PartialSummary partial = PartialSummary.of(values(random, random.nextInt(200)));
+            sent.add(partial);
+            stream.put(partial.toBytes());
+            assertEquals(partial, PartialSummary.fromBytes(partial.toBytes()));
+        }
+        stream.flip();
+        List<PartialSummary> received = new ArrayList<>();
+        while (stream.hasRemaining()) {
+            received.add(PartialSummary.read(stream));
+        }
+        assertEquals(sent, received);
+
+        // A couple of bytes per run, far below the raw values.
+        int[] values = values(new Random(1), 100_000);
+        PartialSummary big = PartialSummary.of(values);
+        assertTrue(big.toBytes().length < big.runCount() * 4 + 16);
+        assertTrue(big.toBytes().length < values.length);
+
+        byte[] bytes = big.toBytes();
+        assertThrows(IllegalArgumentException.class, () -> PartialSummary.fromBytes(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> PartialSummary.fromBytes(Arrays.copyOf(bytes, bytes.length + 1)));
+        bytes[bytes.length / 2] ^= 0x10;
+        assertThrows(IllegalArgumentException.class, () -> PartialSummary.fromBytes(bytes));
+    }
+
+    private static PartialSummary tree(List<PartialSummary> shards, int from, int to) {
+        if (to - from == 0) {
+            return PartialSummary.empty();
+        }
+        if (to - from == 1) {
+            return shards.get(from);
+        }
+        int mid = (from + to) >>> 1;
+        return PartialSummary.combine(tree(shards, from, mid), tree(shards, mid, to));
+    }
+
+    /**
+     * Runs both ways, zigzags, duplicates, jumps and the odd wrap-around at the int limits.
+     */
+    private static int[] values(Random random, int n) {
+        int[] values = new int[n];
+        int v = random.nextInt(100);
+        for (int i = 0; i < n; i++) {
+            int r = random.nextInt(100);
+            v += r < 40 ? 1 : r < 80 ? -1 : r < 90 ? 0 : r < 99 ? random.nextInt(20) - 10 : Integer.MAX_VALUE;
+            values[i] = v;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,199 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Hot-path budgets, checked before a release (mvn -P perf test); not part of the normal build.
+ *
+ * For collect, summarizeCollection and the batch CLI path at fixed sizes, measures the
+ * bytes allocated per input element (com.sun.management.ThreadMXBean, calling thread only)
+ * and the throughput in elements per second, after a warm-up, and fails when either is
+ * worse than its budget in src/test/resources/perf-budgets.properties.
+ *
+ * Allocation is deterministic enough for tight budgets. Throughput depends on the machine,
+ * so those budgets are floors well below a typical laptop; -Dperf.throughputScale=0.5
+ * halves them on a slow runner (0 skips the throughput check).
+ */
+@DisplayName("Performance regression guard")
+class PerformanceRegressionGuard {
+
+    private static final int[] SIZES = {1_000, 1_000_000};
+
+    // Values per line in the batch input.
+    private static final int LINE_LENGTH = 100;
+
+    private static final long WARMUP_NANOS = 300_000_000L;
+    private static final int WARMUP_MIN_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static Properties budgets;
+
+    private final NumberRangeSummarizer summarizer = new NumberRangeSummarizerImpl();
+    private final List<String> failures = new ArrayList<>();
+
+    // Results go here so the JIT cannot drop the work.
+    private Object sink;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "per-thread allocation counters need the com.sun.management extension");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        budgets = new Properties();
+        try (InputStream in = PerformanceRegressionGuard.class.getResourceAsStream("/perf-budgets.properties")) {
+            assertNotNull(in, "perf-budgets.properties is missing from the test resources");
+            budgets.load(in);
+        }
+        System.out.println("\n── Performance regression guard ───────────────────────────");
+        System.out.println(String.format(Locale.ROOT, "  %-28s %14s %18s", "", "bytes/element", "elements/s"));
+    }
+
+    @Test
+    @DisplayName("collect stays within its allocation and throughput budgets")
+    void collect() {
+        for (int size : SIZES) {
+            String csv = csv(values(size));
+            check("collect." + size, size, () -> sink = summarizer.collect(csv));
+        }
+        assertWithinBudgets();
+    }
+
+    @Test
+    @DisplayName("summarizeCollection stays within its allocation and throughput budgets")
+    void summarizeCollection() {
+        for (int size : SIZES) {
+            Collection<Integer> collected = summarizer.collect(csv(values(size)));
+            check("summarizeCollection." + size, size, () -> sink = summarizer.summarizeCollection(collected));
+        }
+        assertWithinBudgets();
+    }
+
+    @Test
+    @DisplayName("the CLI batch path stays within its allocation and throughput budgets")
+    void batch() {
+        // Single-threaded, so every allocation happens on the measuring thread.
+        BatchProcessor batch = new BatchProcessor(summarizer);
+        for (int size : SIZES) {
+            int[] values = values(size);
+            StringBuilder lines = new StringBuilder();
+            for (int i = 0; i < values.length; i += LINE_LENGTH) {
+                lines.append(csv(values, i, Math.min(values.length, i + LINE_LENGTH))).append('\n');
+            }
+            byte[] input = lines.toString().getBytes(StandardCharsets.UTF_8);
+            check("batch." + size, size, () -> {
+                try {
+                    sink = batch.run(new ByteArrayInputStream(input), OutputStream.nullOutputStream());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        assertWithinBudgets();
+    }
+
+    /**
+     * Warm up, then measure: the lowest allocation and the best time of the measured
+     * iterations, so a GC pause or a stray safepoint does not decide the result.
+     */
+    private void check(String name, int elements, Runnable workload) {
+        long tid = Thread.currentThread().getId();
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        for (int i = 0; i < WARMUP_MIN_ITERATIONS || System.nanoTime() < warmupEnd; i++) {
+            workload.run();
+        }
+        long bytes = Long.MAX_VALUE;
+        long nanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(tid);
+            long start = System.nanoTime();
+            workload.run();
+            long elapsed = System.nanoTime() - start;
+            bytes = Math.min(bytes, threads.getThreadAllocatedBytes(tid) - allocatedBefore);
+            nanos = Math.min(nanos, elapsed);
+        }
+        double bytesPerElement = (double) bytes / elements;
+        double elementsPerSecond = elements * 1e9 / Math.max(1, nanos);
+        System.out.println(String.format(Locale.ROOT, "  %-28s %14.1f %18.0f", name, bytesPerElement, elementsPerSecond));
+
+        double maxBytes = budget(name + ".maxBytesPerElement");
+        if (bytesPerElement > maxBytes) {
+            failures.add(String.format(Locale.ROOT, "%s allocates %.1f bytes/element, budget %.1f",
+                    name, bytesPerElement, maxBytes));
+        }
+        double minRate = budget(name + ".minElementsPerSecond")
+                * Double.parseDouble(System.getProperty("perf.throughputScale", "1"));
+        if (elementsPerSecond < minRate) {
+            failures.add(String.format(Locale.ROOT, "%s runs at %.0f elements/s, budget %.0f",
+                    name, elementsPerSecond, minRate));
+        }
+    }
+
+    private static double budget(String key) {
+        String value = budgets.getProperty(key);
+        assertNotNull(value, "no budget for " + key + " in perf-budgets.properties");
+        return Double.parseDouble(value.trim());
+    }
+
+    private void assertWithinBudgets() {
+        if (!failures.isEmpty()) {
+            fail("Over budget:\n  - " + String.join("\n  - ", failures));
+        }
+    }
+
+    /**
+     * Realistic mix: runs of 1-20 values either way, separated by jumps.
+     */
+    private static int[] values(int n) {
+        Random random = new Random(n);
+        int[] values = new int[n];
+        int v = 0;
+        int i = 0;
+        while (i < n) {
+            int step = random.nextBoolean() ? 1 : -1;
+            v += random.nextInt(1000) - 500;
+            for (int k = random.nextInt(20) + 1; k > 0 && i < n; k--) {
+                values[i++] = v;
+                v += step;
+            }
+        }
+        return values;
+    }
+
+    private static String csv(int[] values) {
+        return csv(values, 0, values.length);
+    }
+
+    private static String csv(int[] values, int from, int to) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                sb.append(',');
+            }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,120 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Digit routines and the byte writer must produce exactly what String.valueOf / UTF-8 would.
+ */
+@DisplayName("RangeRenderer / RunByteWriter")
+class RangeRendererTest {
+
+    private static final int[] EDGES = {
+        0, 1, -1, 9, 10, -10, 99, 100, 999_999_999, 1_000_000_000, -999_999_999,
+        Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1
+    };
+
+    @Test
+    @DisplayName("writeInt matches String.valueOf for char[] and byte[]")
+    void ints() {
+        char[] chars = new char[RangeRenderer.MAX_INT_CHARS + 3];
+        byte[] bytes = new byte[RangeRenderer.MAX_INT_CHARS + 3];
+        for (int v : EDGES) {
+            int n = RangeRenderer.writeInt(chars, 3, v);
+            assertEquals(String.valueOf(v), new String(chars, 3, n - 3));
+            n = RangeRenderer.writeInt(bytes, 3, v);
+            assertEquals(String.valueOf(v), new String(bytes, 3, n - 3, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    @DisplayName("writeRun renders singletons and ranges, worst case fits MAX_RUN_CHARS")
+    void runs() throws IOException {
+        char[] chars = new char[RangeRenderer.MAX_RUN_CHARS];
+        assertEquals("7", new String(chars, 0, RangeRenderer.writeRun(chars, 0, 7, 7)));
+        assertEquals("-1--4", new String(chars, 0, RangeRenderer.writeRun(chars, 0, -1, -4)));
+        assertEquals("-2147483648--2147483647", new String(chars, 0,
+                RangeRenderer.writeRun(chars, 0, Integer.MIN_VALUE, Integer.MIN_VALUE + 1)));
+
+        StringBuilder sb = new StringBuilder("x");
+        RangeRenderer.appendRun(sb, 6, 2, chars);
+        assertEquals("x6-2", sb.toString());
+    }
+
+    @Test
+    @DisplayName("RunByteWriter encodes UTF-8 like the JDK, across tiny buffers")
+    void byteWriterText() throws IOException {
+        String text = "Result: 1-4, 6-2 | é ٢٣ € 😀 end";
+        for (int size = 1; size <= 8; size++) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (RunByteWriter w = new RunByteWriter(bytes, null, size)) {
+                w.append(text, 0, 10);
+                w.write(text.substring(10).toCharArray(), 0, text.length() - 10);
+                w.writeRun(Integer.MIN_VALUE, 5);
+                w.write('!');
+            }
+            assertEquals(text + "-2147483648-5!", new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("RunByteWriter replaces a high surrogate left unpaired by digits or close")
+    void byteWriterUnpairedHigh() throws IOException {
+        String high = "a\uD83D";
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (Writer jdk = new OutputStreamWriter(expected, StandardCharsets.UTF_8)) {
+            jdk.write(high);
+            jdk.write("7");
+            jdk.write(high);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RunByteWriter w = new RunByteWriter(bytes, null, 1);
+        w.write(high);
+        w.writeInt(7);
+        w.write(high);
+        w.close();
+        w.close();
+        assertEquals("a?7a?", new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+        assertArrayEquals(expected.toByteArray(), bytes.toByteArray());
+    }
+
+    @Test
+    @DisplayName("appendLongRun renders the same text through RunByteWriter as through a StringBuilder")
+    void longRunsByteWriter() throws IOException {
+        long[][] runs = {{7, 7, 1}, {-3, 3, 1}, {5, 1, -2}, {Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE},
+            {Integer.MAX_VALUE, Integer.MAX_VALUE + 10L, 5}};
+        char[] scratch = new char[RangeRenderer.MAX_LONG_RUN_CHARS];
+        StringBuilder expected = new StringBuilder();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (RunByteWriter w = new RunByteWriter(bytes, null, 1)) {
+            for (long[] run : runs) {
+                RangeRenderer.appendLongRun(expected, run[0], run[1], run[2], scratch);
+                RangeRenderer.appendLongRun(w, run[0], run[1], run[2], scratch);
+                expected.append(';');
+                w.write(';');
+            }
+        }
+        assertEquals("7;-3-3;5-1:-2;-9223372036854775808-9223372036854775807:9223372036854775807;"
+                + "2147483647-2147483657:5;", expected.toString());
+        assertEquals(expected.toString(), new String(bytes.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("RunByteWriter writes to a WritableByteChannel")
+    void byteWriterChannel() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RunByteWriter w = new RunByteWriter(Channels.newChannel(bytes));
+        new NumberRangeSummarizerImpl().summarizeTo(IntSequence.of(new int[]{1, 2, 3, 4, 6, 5, 4, 3, 2}), w);
+        w.flush();
+        assertEquals("1-4, 6-2", new String(bytes.toByteArray(), StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,120 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Editable summary: after every edit it must equal a full recompute, and edits inside
+ * huge sequences must stay cheap.
+ */
+@DisplayName("RangeSummary")
+class RangeSummaryTest {
+
+    private final NumberRangeSummarizer summarizer = new NumberRangeSummarizerImpl();
+
+    private void assertMatches(final List<Integer> model, final RangeSummary summary) {
+        assertEquals(summarizer.summarizeCollection(model), summary.toString());
+        assertEquals(model.size(), summary.size());
+    }
+
+    @Test
+    @DisplayName("random appends, sets, inserts and removes always match a full recompute")
+    void randomEdits() {
+        Random random = new Random(17);
+        for (int round = 0; round < 40; round++) {
+            List<Integer> model = new ArrayList<>();
+            RangeSummary summary = new RangeSummary();
+            for (int op = 0; op < 400; op++) {
+                // Small values so runs form, merge and split all the time.
+                int value = random.nextInt(12);
+                int kind = model.isEmpty() ? 0 : random.nextInt(4);
+                if (kind == 0) {
+                    model.add(value);
+                    summary.append(value);
+                } else if (kind == 1) {
+                    int i = random.nextInt(model.size());
+                    assertEquals(model.set(i, value), summary.set(i, value));
+                } else if (kind == 2) {
+                    int i = random.nextInt(model.size() + 1);
+                    model.add(i, value);
+                    summary.insert(i, value);
+                } else {
+                    int i = random.nextInt(model.size());
+                    assertEquals(model.remove(i), summary.remove(i));
+                }
+                assertMatches(model, summary);
+            }
+            for (int i = 0; i < model.size(); i++) {
+                assertEquals(model.get(i), summary.get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("building from a sequence equals summarizing it")
+    void of() {
+        int[] values = summarizer.collectInts("1,2,3,4,6,5,4,3,2,2,7,9,8");
+        RangeSummary summary = RangeSummary.of(IntSequence.of(values));
+        assertEquals("1-4, 6-2, 2, 7, 9-8", summary.toString());
+        assertEquals(5, summary.runCount());
+        assertEquals(new NumberRangeSummarizerImpl().runs(IntSequence.of(values)), summary.runs());
+        assertEquals("", new RangeSummary().toString());
+    }
+
+    @Test
+    @DisplayName("runs wrapping around the int range keep their exact length")
+    void wrapAround() {
+        List<Integer> model = new ArrayList<>();
+        RangeSummary summary = new RangeSummary();
+        for (int v : new int[]{Integer.MAX_VALUE - 1, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1}) {
+            model.add(v);
+            summary.append(v);
+        }
+        assertMatches(model, summary);
+        assertEquals(Integer.MIN_VALUE, summary.get(2));
+        model.remove(1);
+        summary.remove(1);
+        assertMatches(model, summary);
+    }
+
+    @Test
+    @DisplayName("edits in a million-value sequence only touch nearby runs")
+    void largeSequence() {
+        int n = 1_000_000;
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = (i / 1000) % 2 == 0 ? i : -i;
+        }
+        RangeSummary summary = RangeSummary.of(IntSequence.of(values));
+        Random random = new Random(1);
+        long started = System.nanoTime();
+        for (int op = 0; op < 20_000; op++) {
+            int i = random.nextInt(summary.size());
+            int value = summary.get(i);
+            summary.set(i, value + 7);
+            summary.set(i, value);
+            summary.insert(i, 5);
+            summary.remove(i);
+        }
+        // 80k edits on a full-recompute basis would take minutes; generous bound for slow CI.
+        assertTrue(System.nanoTime() - started < 10_000_000_000L);
+        assertEquals(summarizer.summarize(values), summary.toString());
+    }
+
+    @Test
+    @DisplayName("bad indexes throw IndexOutOfBoundsException")
+    void bounds() {
+        RangeSummary summary = new RangeSummary();
+        assertThrows(IndexOutOfBoundsException.class, () -> summary.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> summary.insert(1, 5));
+        summary.append(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> summary.set(1, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> summary.remove(-1));
+    }
+}
@@ -0,0 +1,98 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Binary run format: lossless round trips, compact output, and loud failures on bad data.
+ */
+@DisplayName("RunCodec")
+class RunCodecTest {
+
+    private final NumberRangeSummarizer summarizer = new NumberRangeSummarizerImpl();
+
+    @Test
+    @DisplayName("round trip reproduces the runs and the text summary")
+    void roundTrip() throws IOException {
+        int[] values = summarizer.collectInts("1,2,3,4,6,5,4,3,2,2147483647,-2147483648,-2147483648,0,0");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RunCodec.encode(IntSequence.of(values), out);
+        byte[] bytes = out.toByteArray();
+
+        assertEquals(summarizer.summarize(values), RunCodec.decodeToString(ByteBuffer.wrap(bytes)));
+        List<Run> runs = RunCodec.decode(ByteBuffer.wrap(bytes));
+        assertEquals(new Run(1, 4), runs.get(0));
+        assertEquals(new Run(6, 2), runs.get(1));
+    }
+
+    @Test
+    @DisplayName("random run lists survive, including extreme deltas")
+    void randomRuns() {
+        Random random = new Random(7);
+        for (int round = 0; round < 100; round++) {
+            Run[] runs = new Run[random.nextInt(50)];
+            for (int i = 0; i < runs.length; i++) {
+                int from = random.nextBoolean() ? random.nextInt() : random.nextInt(100);
+                runs[i] = new Run(from, random.nextBoolean() ? from : random.nextInt());
+            }
+            List<Run> list = Arrays.asList(runs);
+            assertEquals(list, RunCodec.decode(ByteBuffer.wrap(RunCodec.toBytes(list))));
+        }
+    }
+
+    @Test
+    @DisplayName("nearby runs cost about two bytes each")
+    void compact() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            for (int v = i * 10; v <= i * 10 + 5; v++) {
+                csv.append(v).append(',');
+            }
+        }
+        int[] values = summarizer.collectInts(csv);
+        List<Run> runs = NumberRangeSummarizerImpl.toRuns(IntSequence.of(values), 0, values.length);
+        byte[] bytes = RunCodec.toBytes(runs);
+        assertTrue(bytes.length < runs.size() * 2 + 16, "encoded " + bytes.length + " bytes");
+        assertTrue(bytes.length * 4 < summarizer.summarize(values).length());
+    }
+
+    @Test
+    @DisplayName("records can be read back to back from one buffer")
+    void concatenated() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RunCodec.encode(IntSequence.of(new int[]{1, 2, 3}), out);
+        RunCodec.encode(IntSequence.of(new int[]{9, 8, 1}), out);
+        ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+        assertEquals("1-3", RunCodec.decodeToString(in));
+        assertEquals("9-8, 1", RunCodec.decodeToString(in));
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("bad magic, truncation and flipped bits are rejected")
+    void corruption() {
+        byte[] good = RunCodec.toBytes(Arrays.asList(new Run(1, 4), new Run(6, 2), new Run(100, 100)));
+
+        byte[] badMagic = good.clone();
+        badMagic[0] = 'X';
+        assertThrows(IllegalArgumentException.class, () -> RunCodec.decode(ByteBuffer.wrap(badMagic)));
+
+        byte[] truncated = Arrays.copyOf(good, good.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> RunCodec.decode(ByteBuffer.wrap(truncated)));
+
+        byte[] flipped = good.clone();
+        flipped[flipped.length - 1] ^= 0x01;
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> RunCodec.decode(ByteBuffer.wrap(flipped)));
+        assertTrue(e.getMessage().contains("checksum"));
+    }
+}
@@ -0,0 +1,154 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Positional lookups over runs, checked against the expanded sequence, plus ranges far
+ * too large to expand.
+ */
+@DisplayName("RunIndex")
+class RunIndexTest {
+
+    private final NumberRangeSummarizerImpl summarizer = new NumberRangeSummarizerImpl();
+
+    @Test
+    @DisplayName("every lookup agrees with the sequence it indexes")
+    void matchesSequence() {
+        Random random = new Random(18);
+        for (int round = 0; round < 200; round++) {
+            int[] values = new int[1 + random.nextInt(200)];
+            int v = random.nextInt(100) - 50;
+            for (int i = 0; i < values.length; i++) {
+                v += random.nextInt(5) - 2;
+                values[i] = v;
+            }
+            RunIndex index = RunIndex.of(IntSequence.of(values));
+            List<Run> runs = summarizer.runs(IntSequence.of(values));
+            RunIndex fromRuns = RunIndex.of(runs);
+
+            assertEquals(values.length, index.size());
+            assertEquals(fromRuns.runCount(), index.runCount());
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(values[i], index.valueAt(i));
+                int run = index.runContaining(i);
+                assertTrue(index.runStart(run) <= i && i < index.runStart(run) + index.run(run).length());
+            }
+            for (int probe = v - 60; probe <= v + 60; probe++) {
+                assertEquals(firstIndexOf(values, probe), index.firstPositionOf(probe), "value " + probe);
+            }
+            for (int k = 0; k < 20; k++) {
+                int a = random.nextInt(values.length + 1);
+                int b = a + random.nextInt(values.length - a + 1);
+                assertEquals(overlapping(runs, a, b), index.rangeCount(a, b), "slice [" + a + ", " + b + ")");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("sorted input is searched by binary search, in either direction")
+    void monotone() {
+        RunIndex ascending = RunIndex.parse("-5--3, 0, 2-9, 20-2000000000");
+        assertTrue(ascending.isMonotone());
+        assertEquals(0, ascending.firstPositionOf(-5));
+        assertEquals(3, ascending.firstPositionOf(0));
+        assertEquals(-1, ascending.firstPositionOf(1));
+        assertEquals(4 + 7, ascending.firstPositionOf(9));
+        assertEquals(12 + 1_000_000_000L - 20, ascending.firstPositionOf(1_000_000_000));
+        assertEquals(-1, ascending.firstPositionOf(Integer.MAX_VALUE));
+
+        RunIndex descending = RunIndex.parse("9-7, 5, 3--3");
+        assertTrue(descending.isMonotone());
+        assertEquals(4, descending.firstPositionOf(3));
+        assertEquals(10, descending.firstPositionOf(-3));
+        assertEquals(-1, descending.firstPositionOf(6));
+
+        assertFalse(RunIndex.parse("1-4, 6-2").isMonotone());
+        assertEquals(4, RunIndex.parse("1-4, 6-2").firstPositionOf(6));
+        assertEquals(1, RunIndex.parse("1-4, 6-2").firstPositionOf(2));
+    }
+
+    @Test
+    @DisplayName("hundreds of millions of values cost one entry per run")
+    void huge() {
+        RunIndex index = RunIndex.parse("0-299999999, -1, 300000000--300000000");
+        assertEquals(300_000_000L + 1 + 600_000_001L, index.size());
+        assertEquals(299_999_999, index.valueAt(299_999_999L));
+        assertEquals(-1, index.valueAt(300_000_000L));
+        assertEquals(300_000_000, index.valueAt(300_000_001L));
+        assertEquals(-300_000_000, index.valueAt(index.size() - 1));
+        assertEquals(2, index.runContaining(index.size() - 1));
+        assertEquals(3, index.rangeCount(0, index.size()));
+        assertEquals(1, index.rangeCount(5, 250_000_000L));
+        assertEquals(1, index.firstPositionOf(1));
+        assertEquals(300_000_000L, index.firstPositionOf(-1));
+    }
+
+    @Test
+    @DisplayName("runs that wrap around the int range hold only the values they were made of")
+    void wrappedRuns() {
+        RunIndex index = RunIndex.of(IntSequence.of(new int[]{Integer.MAX_VALUE, Integer.MIN_VALUE}));
+        assertEquals(1, index.runCount());
+        assertEquals(2, index.size());
+        assertEquals(Integer.MAX_VALUE, index.valueAt(0));
+        assertEquals(Integer.MIN_VALUE, index.valueAt(1));
+        assertEquals(1, index.firstPositionOf(Integer.MIN_VALUE));
+        assertEquals(-1, index.firstPositionOf(0));
+        assertEquals(-1, index.firstPositionOf(Integer.MAX_VALUE - 1));
+        assertFalse(index.isMonotone());
+
+        int[] values = {5, Integer.MIN_VALUE + 1, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE - 1, 3, 4};
+        RunIndex down = RunIndex.of(IntSequence.of(values));
+        assertEquals(values.length, down.size());
+        assertEquals(3, down.runCount());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], down.valueAt(i));
+            assertEquals(firstIndexOf(values, values[i]), down.firstPositionOf(values[i]));
+        }
+        assertEquals(-1, down.firstPositionOf(0));
+        // The text of the same runs still reads as plain numeric ranges.
+        assertEquals(1L << 32, RunIndex.parse("2147483647--2147483648").size());
+    }
+
+    @Test
+    @DisplayName("out of range positions and runs are rejected")
+    void bounds() {
+        RunIndex index = RunIndex.parse("1-3");
+        assertThrows(IndexOutOfBoundsException.class, () -> index.valueAt(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.valueAt(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.run(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.rangeCount(2, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.rangeCount(0, 4));
+        assertEquals(0, index.rangeCount(3, 3));
+        assertEquals(0, RunIndex.parse("").size());
+        assertEquals(-1, RunIndex.parse("").firstPositionOf(0));
+        assertThrows(IllegalArgumentException.class, () -> RunIndex.of((IntSequence) null));
+    }
+
+    private static int overlapping(List<Run> runs, long from, long to) {
+        int count = 0;
+        long start = 0;
+        for (Run run : runs) {
+            long end = start + run.length();
+            if (from < to && start < to && from < end) {
+                count++;
+            }
+            start = end;
+        }
+        return count;
+    }
+
+    private static long firstIndexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,289 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The reactive processor: same runs as the batch summarizer however the input is chunked,
+ * and upstream demand that never runs ahead of the subscriber.
+ */
+@DisplayName("RunProcessor")
+class RunProcessorTest {
+
+    private final NumberRangeSummarizerImpl summarizer = new NumberRangeSummarizerImpl();
+
+    @Test
+    @DisplayName("int[] chunks of any size give the batch summarizer's runs")
+    void intChunks() {
+        Random random = new Random(21);
+        for (int round = 0; round < 100; round++) {
+            int[] values = randomWalk(random, random.nextInt(500));
+            List<int[]> chunks = new ArrayList<>();
+            for (int i = 0; i < values.length; ) {
+                int n = Math.min(values.length - i, random.nextInt(20));
+                chunks.add(Arrays.copyOfRange(values, i, i + n));
+                i += n;
+            }
+            ChunkPublisher<int[]> source = new ChunkPublisher<>(chunks);
+            RunProcessor<int[]> processor = RunProcessor.ints();
+            Collector collector = new Collector(Long.MAX_VALUE);
+            source.subscribe(processor);
+            processor.subscribe(collector);
+
+            assertTrue(collector.completed);
+            assertEquals(summarizer.runs(IntSequence.of(values)), collector.runs);
+        }
+    }
+
+    @Test
+    @DisplayName("CSV bytes split anywhere, even inside a token, parse the same")
+    void csvChunks() {
+        String csv = " 1, 2,3 ,,4,6, 5,4,3,2,-2147483648 , +7,";
+        byte[] bytes = csv.getBytes(StandardCharsets.US_ASCII);
+        List<Run> expected = summarizer.runs(IntSequence.of(summarizer.collectInts(csv)));
+        for (int split = 0; split <= bytes.length; split++) {
+            List<byte[]> chunks = List.of(Arrays.copyOfRange(bytes, 0, split), Arrays.copyOfRange(bytes, split, bytes.length));
+            RunProcessor<byte[]> processor = RunProcessor.csv();
+            Collector collector = new Collector(Long.MAX_VALUE);
+            new ChunkPublisher<>(chunks).subscribe(processor);
+            processor.subscribe(collector);
+            assertEquals(expected, collector.runs, "split at " + split);
+            assertTrue(collector.completed);
+        }
+    }
+
+    @Test
+    @DisplayName("a bad token ends the stream with the parser's error and cancels upstream")
+    void badToken() {
+        ChunkPublisher<byte[]> source = new ChunkPublisher<>(List.of("1,2,".getBytes(StandardCharsets.US_ASCII),
+                "x,4".getBytes(StandardCharsets.US_ASCII), "5".getBytes(StandardCharsets.US_ASCII)));
+        RunProcessor<byte[]> processor = RunProcessor.csv();
+        Collector collector = new Collector(Long.MAX_VALUE);
+        source.subscribe(processor);
+        processor.subscribe(collector);
+
+        assertInstanceOf(NumberFormatException.class, collector.error);
+        assertEquals("Invalid integer token: 'x' at position 4", collector.error.getMessage());
+        assertTrue(source.cancelled);
+        assertFalse(collector.completed);
+    }
+
+    @Test
+    @DisplayName("padding of any length is fine, an endless token fails as soon as it cannot be an int")
+    void longTokens() {
+        String blanks = " ".repeat(10_000);
+        Collector padded = csv(List.of(blanks + "1" + blanks, blanks + "," + blanks + "2" + blanks));
+        assertEquals(summarizer.runs(IntSequence.of(new int[]{1, 2})), padded.runs);
+        assertTrue(padded.completed);
+
+        Collector padding = csv(List.of("7" + blanks + "8"));
+        assertEquals("Invalid integer token: '7…' at position 0", padding.error.getMessage());
+
+        // The decoder keeps 63 bytes of a token: a sign, ten 3-byte digits and 32 blanks.
+        String digits = "1".repeat(100);
+        Collector endless = csv(List.of("1,", digits, digits, digits));
+        assertInstanceOf(NumberFormatException.class, endless.error);
+        assertEquals("Invalid integer token: '" + "1".repeat(63) + "…' at position 2",
+                endless.error.getMessage());
+        assertFalse(endless.completed);
+    }
+
+    private static Collector csv(final List<String> chunks) {
+        List<byte[]> bytes = new ArrayList<>();
+        for (String chunk : chunks) {
+            bytes.add(chunk.getBytes(StandardCharsets.US_ASCII));
+        }
+        RunProcessor<byte[]> processor = RunProcessor.csv();
+        Collector collector = new Collector(Long.MAX_VALUE);
+        new ChunkPublisher<>(bytes).subscribe(processor);
+        processor.subscribe(collector);
+        return collector;
+    }
+
+    @Test
+    @DisplayName("chunks are only requested while the subscriber wants runs")
+    void backPressure() {
+        // Every chunk holds 50 separate runs.
+        List<int[]> chunks = new ArrayList<>();
+        for (int c = 0; c < 10; c++) {
+            int[] chunk = new int[50];
+            for (int i = 0; i < chunk.length; i++) {
+                chunk[i] = (c * 50 + i) * 10;
+            }
+            chunks.add(chunk);
+        }
+        ChunkPublisher<int[]> source = new ChunkPublisher<>(chunks);
+        RunProcessor<int[]> processor = RunProcessor.ints();
+        Collector collector = new Collector(0);
+        source.subscribe(processor);
+        processor.subscribe(collector);
+        assertEquals(0, source.requested, "no demand, no chunk");
+
+        collector.subscription.request(1);
+        assertEquals(1, collector.runs.size());
+        assertEquals(1, source.requested);
+
+        collector.subscription.request(49);
+        assertEquals(50, collector.runs.size());
+        assertEquals(2, source.requested, "next chunk only once the first one's runs are out");
+
+        collector.subscription.request(200);
+        assertEquals(250, collector.runs.size());
+        assertEquals(6, source.requested);
+
+        collector.subscription.request(Long.MAX_VALUE);
+        assertEquals(500, collector.runs.size());
+        assertTrue(collector.completed);
+
+        collector.subscription.cancel();
+        assertNull(collector.error);
+    }
+
+    @Test
+    @DisplayName("a slow subscriber on another thread throttles a SubmissionPublisher")
+    void slowSubscriber() throws Exception {
+        int[] values = randomWalk(new Random(3), 200_000);
+        RunProcessor<int[]> processor = RunProcessor.ints();
+        List<Run> runs = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        processor.subscribe(new Flow.Subscriber<Run>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Run run) {
+                runs.add(run);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                done.completeExceptionally(error);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        try (SubmissionPublisher<int[]> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            for (int i = 0; i < values.length; i += 1000) {
+                publisher.submit(Arrays.copyOfRange(values, i, Math.min(values.length, i + 1000)));
+                // Buffered chunks stay bounded by the publisher's buffer, not the input size.
+                assertTrue(publisher.estimateMaximumLag() <= publisher.getMaxBufferCapacity());
+            }
+        }
+        done.get(30, TimeUnit.SECONDS);
+        assertEquals(summarizer.runs(IntSequence.of(values)), new ArrayList<>(runs));
+    }
+
+    @Test
+    @DisplayName("only one subscriber is accepted")
+    void singleSubscriber() {
+        RunProcessor<int[]> processor = RunProcessor.ints();
+        processor.subscribe(new Collector(0));
+        Collector second = new Collector(0);
+        processor.subscribe(second);
+        assertInstanceOf(IllegalStateException.class, second.error);
+    }
+
+    private static int[] randomWalk(Random random, int n) {
+        int[] values = new int[n];
+        int v = random.nextInt(1000);
+        for (int i = 0; i < n; i++) {
+            v += random.nextInt(5) - 2;
+            values[i] = v;
+        }
+        return values;
+    }
+
+    /**
+     * Synchronous publisher of a fixed list of chunks that records the demand it sees.
+     */
+    private static final class ChunkPublisher<T> implements Flow.Publisher<T> {
+        private final List<T> chunks;
+        private int next;
+        long requested;
+        boolean cancelled;
+
+        ChunkPublisher(List<T> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested += n;
+                    for (long k = 0; k < n && next < chunks.size() && !cancelled; k++) {
+                        subscriber.onNext(chunks.get(next++));
+                    }
+                    if (next == chunks.size() && !cancelled) {
+                        next++;
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    private static final class Collector implements Flow.Subscriber<Run> {
+        private final long initialDemand;
+        final List<Run> runs = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        Collector(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialDemand > 0) {
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        public void onNext(Run run) {
+            runs.add(run);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
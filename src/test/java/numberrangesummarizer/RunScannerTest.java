@@ -0,0 +1,63 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Array fast path of toRuns: boundary jumping must give exactly the RunDetector runs.
+ */
+@DisplayName("RunScanner")
+class RunScannerTest {
+
+    private static List<Run> detectorRuns(final int[] values, final int from, final int to) {
+        List<Run> runs = new ArrayList<>();
+        RunDetector detector = new RunDetector((a, b) -> runs.add(new Run(a, b)));
+        for (int i = from; i < to; i++) {
+            detector.accept(values[i]);
+        }
+        detector.finish();
+        return runs;
+    }
+
+    @Test
+    @DisplayName("random walks, slices included, give the same runs as the state machine")
+    void randomWalks() {
+        Random random = new Random(5);
+        for (int round = 0; round < 500; round++) {
+            int[] values = new int[random.nextInt(400)];
+            int v = random.nextInt(20) - 10;
+            for (int i = 0; i < values.length; i++) {
+                int r = random.nextInt(10);
+                v += r < 4 ? 1 : r < 8 ? -1 : r < 9 ? 0 : random.nextInt(7) - 3;
+                values[i] = v;
+            }
+            int from = values.length == 0 ? 0 : random.nextInt(values.length);
+            int to = from + random.nextInt(values.length - from + 1);
+            assertEquals(detectorRuns(values, from, to), NumberRangeSummarizerImpl.toRuns(values, from, to));
+            assertEquals(detectorRuns(values, from, to),
+                NumberRangeSummarizerImpl.toRuns(IntSequence.of(values, from, to - from), 0, to - from));
+        }
+    }
+
+    @Test
+    @DisplayName("wrap-around between MAX_VALUE and MIN_VALUE counts as a step, as before")
+    void wrapAround() {
+        int[] values = {Integer.MAX_VALUE - 1, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1};
+        assertEquals(detectorRuns(values, 0, values.length), NumberRangeSummarizerImpl.toRuns(values, 0, 4));
+    }
+
+    @Test
+    @DisplayName("extend stops at the first break and at the end of the range")
+    void extend() {
+        int[] values = {1, 2, 3, 4, 9, 10};
+        assertEquals(4, RunScanner.extend(values, 1, values.length, 1));
+        assertEquals(3, RunScanner.extend(values, 1, 3, 1));
+        assertEquals(1, RunScanner.extend(values, 1, values.length, -1));
+    }
+}
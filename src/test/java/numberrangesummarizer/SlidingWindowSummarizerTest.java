@@ -0,0 +1,124 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Windowed summaries: after every arrival and eviction the incremental run deque must
+ * describe exactly what summarizing the window from scratch gives.
+ */
+@DisplayName("SlidingWindowSummarizer")
+class SlidingWindowSummarizerTest {
+
+    private final NumberRangeSummarizerImpl summarizer = new NumberRangeSummarizerImpl();
+
+    @Test
+    @DisplayName("a count window matches summarizing its last N values from scratch")
+    void countWindow() {
+        Random random = new Random(25);
+        for (int n : new int[]{1, 2, 3, 5, 17, 100}) {
+            SlidingWindowSummarizer window = SlidingWindowSummarizer.lastValues(n);
+            ArrayDeque<Integer> expected = new ArrayDeque<>();
+            int v = 0;
+            for (int i = 0; i < 3000; i++) {
+                v = next(random, v);
+                window.accept(v);
+                expected.addLast(v);
+                if (expected.size() > n) {
+                    expected.removeFirst();
+                }
+                assertEquals(expected.size(), window.size());
+                assertEquals(summarizer.runs(IntSequence.of(toArray(expected))), window.runs(), "n=" + n + ", i=" + i);
+            }
+            assertEquals(summarizer.summarizeCollection(expected), window.summary());
+        }
+    }
+
+    @Test
+    @DisplayName("eviction re-cuts the runs when the oldest run shrinks to one value")
+    void recutAfterEviction() {
+        SlidingWindowSummarizer window = SlidingWindowSummarizer.lastValues(4);
+        for (int v : new int[]{5, 6, 5, 4}) {
+            window.accept(v);
+        }
+        assertEquals("5-6, 5-4", window.summary());
+        window.accept(3);
+        // Window 6,5,4,3: the 6 left over from 5-6 now leads the descending run.
+        assertEquals("6-3", window.summary());
+
+        SlidingWindowSummarizer zigzag = SlidingWindowSummarizer.lastValues(5);
+        for (int v : new int[]{1, 2, 1, 2, 1, 2}) {
+            zigzag.accept(v);
+        }
+        assertEquals("2-1, 2-1, 2", zigzag.summary());
+
+        SlidingWindowSummarizer wrap = SlidingWindowSummarizer.lastValues(2);
+        for (int v : new int[]{Integer.MAX_VALUE - 1, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            wrap.accept(v);
+        }
+        assertEquals(summarizer.summarize(new int[]{Integer.MAX_VALUE, Integer.MIN_VALUE}), wrap.summary());
+    }
+
+    @Test
+    @DisplayName("a time window evicts values once they are T old, also without new arrivals")
+    void timeWindow() {
+        long[] now = {Long.MAX_VALUE - 5_000_000_000L};  // nanoTime may wrap; differences still work
+        SlidingWindowSummarizer window = SlidingWindowSummarizer.lastDuration(Duration.ofSeconds(1), () -> now[0]);
+        ArrayDeque<long[]> expected = new ArrayDeque<>();  // {stamp, value}
+        Random random = new Random(9);
+        int v = 0;
+        for (int i = 0; i < 3000; i++) {
+            now[0] += random.nextInt(20_000_000);
+            v = next(random, v);
+            window.accept(v);
+            expected.addLast(new long[]{now[0], v});
+            while (now[0] - expected.peekFirst()[0] >= 1_000_000_000L) {
+                expected.removeFirst();
+            }
+            int[] values = expected.stream().mapToInt(e -> (int) e[1]).toArray();
+            assertEquals(values.length, window.size());
+            assertEquals(summarizer.summarize(values), window.summary(), "i=" + i);
+        }
+
+        now[0] += 999_999_999L - (now[0] - expected.peekLast()[0]);
+        assertEquals(1, window.size());
+        now[0] += 1;
+        assertTrue(window.isEmpty());
+        assertEquals("", window.summary());
+    }
+
+    @Test
+    @DisplayName("clear, and bad window sizes")
+    void edges() {
+        SlidingWindowSummarizer window = SlidingWindowSummarizer.lastValues(10);
+        assertEquals("", window.summary());
+        window.accept(1);
+        window.accept(2);
+        window.clear();
+        assertTrue(window.isEmpty());
+        window.accept(7);
+        assertEquals("7", window.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> SlidingWindowSummarizer.lastValues(0));
+        assertThrows(IllegalArgumentException.class, () -> SlidingWindowSummarizer.lastDuration(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> SlidingWindowSummarizer.lastDuration(null));
+    }
+
+    /**
+     * Mostly runs either way, plus zigzags, duplicates, jumps and the odd wrap-around.
+     */
+    private static int next(Random random, int v) {
+        int r = random.nextInt(100);
+        return v + (r < 40 ? 1 : r < 80 ? -1 : r < 90 ? 0 : r < 99 ? random.nextInt(20) - 10 : Integer.MAX_VALUE);
+    }
+
+    private static int[] toArray(ArrayDeque<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,177 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Set-style summaries: sorted and de-duplicated ranges, checked against a TreeSet, across
+ * every IntBitmap container form and chunk boundary.
+ */
+@DisplayName("SortedRangeSummarizer / IntBitmap")
+class SortedRangeSummarizerTest {
+
+    private final NumberRangeSummarizer summarizer = new SortedRangeSummarizer();
+
+    @Test
+    @DisplayName("values are sorted and de-duplicated before grouping")
+    void examples() {
+        assertEquals("1-3", summarizer.summarizeCollection(summarizer.collect("3,1,2,2")));
+        assertEquals("1, 3-8, 12-15", summarizer.summarizeCollection(summarizer.collect("1,3,6,7,8,12,13,14,15,4,5")));
+        assertEquals("2-6", summarizer.summarizeCollection(summarizer.collect("6,5,4,3,2")));
+        assertEquals("-2147483648, -1-0, 2147483647",
+                summarizer.summarizeCollection(summarizer.collect("0,2147483647,-1,-2147483648,0")));
+        assertEquals("", summarizer.summarizeCollection(summarizer.collect("")));
+        assertEquals(List.of(new Run(1, 3)), ((RunSource) summarizer).runs(IntSequence.of(new int[]{3, 1, 2})));
+        assertThrows(IllegalArgumentException.class, () -> summarizer.summarizeCollection(null));
+    }
+
+    @Test
+    @DisplayName("random sets of every density match a TreeSet")
+    void matchesTreeSet() {
+        Random random = new Random(19);
+        // Sparse (array containers), dense (bitmaps), stretches (runs), and mixes of them.
+        int[][] shapes = {{1 << 20, 300}, {70_000, 50_000}, {200_000, 190_000}, {1 << 30, 2_000}};
+        for (int[] shape : shapes) {
+            for (int round = 0; round < 5; round++) {
+                int width = shape[0];
+                int[] values = new int[shape[1]];
+                int base = random.nextInt() >> 1;
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = base + random.nextInt(width);
+                }
+                // Some long stretches on top, so run containers get random adds too.
+                int[] stretch = new int[random.nextInt(5_000)];
+                int at = base + random.nextInt(width);
+                for (int i = 0; i < stretch.length; i++) {
+                    stretch[i] = at + i;
+                }
+                int[] all = Arrays.copyOf(values, values.length + stretch.length);
+                System.arraycopy(stretch, 0, all, values.length, stretch.length);
+                shuffle(all, random);
+                assertEquals(expected(all), summarizer.summarize(all));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("containers switch form as they fill and still agree")
+    void containerTransitions() {
+        Random random = new Random(5);
+        IntBitmap bitmap = new IntBitmap();
+        TreeSet<Integer> model = new TreeSet<>();
+        // One chunk: scattered (array) -> past 4096 values (bitmap) -> full (single run).
+        int[] order = new int[1 << 16];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (7 << 16) + i;
+        }
+        shuffle(order, random);
+        for (int i = 0; i < order.length; i++) {
+            bitmap.add(order[i]);
+            model.add(order[i]);
+            if (i == 100 || i == 5000 || i == order.length - 2) {
+                assertEquals(model.size(), bitmap.cardinality());
+                assertEquals(expected(model), bitmap.toString());
+            }
+        }
+        assertEquals("458752-524287", bitmap.toString());
+        assertTrue(bitmap.sizeInBytes() < 200, "a full chunk is one run, not 8 KB");
+
+        // Every other value in the next chunk: 2048 runs would be 8 KB, so it becomes a bitmap.
+        for (int v = 8 << 16; v < (9 << 16); v += 2) {
+            bitmap.add(v);
+            model.add(v);
+        }
+        assertEquals(expected(model), bitmap.toString());
+        for (int v = (8 << 16) + 1; v < (9 << 16); v += 4) {
+            assertFalse(bitmap.contains(v));
+            bitmap.add(v);
+            model.add(v);
+            assertTrue(bitmap.contains(v));
+        }
+        assertEquals(expected(model), bitmap.toString());
+        bitmap.optimize();
+        assertEquals(expected(model), bitmap.toString());
+        assertEquals(model.size(), bitmap.cardinality());
+    }
+
+    @Test
+    @DisplayName("ranges crossing chunk boundaries and the sign change come out whole")
+    void chunkBoundaries() {
+        IntBitmap bitmap = new IntBitmap();
+        for (int v = -70_000; v <= 70_000; v++) {
+            bitmap.add(v);
+        }
+        for (int v = (5 << 16) - 3; v <= (5 << 16) + 3; v++) {
+            bitmap.add(v);
+        }
+        bitmap.add(Integer.MAX_VALUE);
+        bitmap.add(Integer.MIN_VALUE);
+        assertEquals("-2147483648, -70000-70000, 327677-327683, 2147483647", bitmap.toString());
+        assertEquals(List.of(new Run(Integer.MIN_VALUE, Integer.MIN_VALUE), new Run(-70_000, 70_000),
+                new Run(327_677, 327_683), new Run(Integer.MAX_VALUE, Integer.MAX_VALUE)), bitmap.ranges());
+    }
+
+    @Test
+    @DisplayName("a 10^9-wide domain stays small when it is made of stretches")
+    void wideDomain() {
+        IntBitmap bitmap = new IntBitmap();
+        // 100 stretches of 100k values spread over a billion, added in reverse order.
+        for (int s = 99; s >= 0; s--) {
+            int start = s * 10_000_000 - 500_000_000;
+            for (int v = start + 99_999; v >= start; v--) {
+                bitmap.add(v);
+            }
+        }
+        bitmap.add(-500_000_000);
+        assertEquals(10_000_000, bitmap.cardinality());
+        assertEquals(100, bitmap.ranges().size());
+        bitmap.optimize();
+        assertTrue(bitmap.sizeInBytes() < 64 * 1024, "bytes: " + bitmap.sizeInBytes());
+    }
+
+    private static String expected(int[] values) {
+        TreeSet<Integer> set = new TreeSet<>();
+        for (int v : values) {
+            set.add(v);
+        }
+        return expected(set);
+    }
+
+    private static String expected(TreeSet<Integer> set) {
+        List<String> ranges = new ArrayList<>();
+        Integer start = null;
+        Integer prev = null;
+        for (int v : set) {
+            if (prev != null && (long) v == prev + 1L) {
+                prev = v;
+                continue;
+            }
+            if (start != null) {
+                ranges.add(start.equals(prev) ? String.valueOf(start) : start + "-" + prev);
+            }
+            start = v;
+            prev = v;
+        }
+        if (start != null) {
+            ranges.add(start.equals(prev) ? String.valueOf(start) : start + "-" + prev);
+        }
+        return String.join(", ", ranges);
+    }
+
+    private static void shuffle(int[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = values[i];
+            values[i] = values[j];
+            values[j] = t;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Push-style summarizer: runs are written as soon as they close, and the
+ * text per sequence matches summarizeCollection.
+ */
+@DisplayName("StreamingRangeSummarizer")
+class StreamingRangeSummarizerTest {
+
+    @Test
+    @DisplayName("runs reach the sink as soon as they close")
+    void emitsEagerly() {
+        StringBuilder out = new StringBuilder();
+        StreamingRangeSummarizer s = new StreamingRangeSummarizer(out);
+        s.accept(1);
+        s.accept(2);
+        s.accept(3);
+        assertEquals("", out.toString(), "run 1..3 may still grow");
+        s.accept(7);
+        assertEquals("1-3", out.toString());
+        s.accept(6);
+        s.accept(9);
+        assertEquals("1-3, 7-6", out.toString());
+        s.flush();
+        assertEquals("1-3, 7-6, 9", out.toString());
+    }
+
+    @Test
+    @DisplayName("flush ends the sequence; the next one starts without a separator")
+    void flushStartsNewSequence() {
+        StringBuilder out = new StringBuilder();
+        StreamingRangeSummarizer s = new StreamingRangeSummarizer(out);
+        s.accept(new int[]{4, 3, 3}, 0, 3);
+        s.flush();
+        out.append('|');
+        s.flush();
+        s.accept(5);
+        s.flush();
+        assertEquals("4-3, 3|5", out.toString());
+    }
+
+    @Test
+    @DisplayName("ten million values stream through without materialising anything")
+    void longRun() {
+        StringBuilder out = new StringBuilder();
+        StreamingRangeSummarizer s = new StreamingRangeSummarizer(out);
+        for (int v = 10_000_000; v >= -10; v--) {
+            s.accept(v);
+        }
+        s.flush();
+        assertEquals("10000000--10", out.toString());
+    }
+
+    @Test
+    @DisplayName("every case in test-cases.txt streams to the same text as the boxed and primitive paths")
+    void matchesBatchPaths() throws IOException {
+        NumberRangeSummarizerImpl summarizer = new NumberRangeSummarizerImpl();
+        List<String> lines = new ArrayList<>();
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("test-cases.txt")) {
+            assertNotNull(is, "Missing resource: test-cases.txt");
+            BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            for (String line; (line = br.readLine()) != null; ) {
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                    lines.add(trimmed);
+                }
+            }
+        }
+        assertFalse(lines.isEmpty());
+        for (int i = 0; i < lines.size(); i += 2) {
+            String input = lines.get(i);
+            String expected = lines.get(i + 1);
+            StringBuilder out = new StringBuilder();
+            StreamingRangeSummarizer s = new StreamingRangeSummarizer(out);
+            for (int v : summarizer.collectInts(input)) {
+                s.accept(v);
+            }
+            s.flush();
+            assertEquals(expected, out.toString(), input);
+            assertEquals(expected, summarizer.summarize(summarizer.collectInts(input)), input);
+            assertEquals(expected, summarizer.summarizeCollection(summarizer.collect(input)), input);
+        }
+    }
+
+    @Test
+    @DisplayName("sink IOExceptions surface as UncheckedIOException")
+    void sinkFailure() {
+        Writer broken = new Writer() {
+            @Override public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("disk full");
+            }
+            @Override public void flush() { }
+            @Override public void close() { }
+        };
+        StreamingRangeSummarizer s = new StreamingRangeSummarizer(broken);
+        s.accept(1);
+        assertThrows(UncheckedIOException.class, s::flush);
+        assertThrows(IllegalArgumentException.class, () -> new StreamingRangeSummarizer(null));
+    }
+}
@@ -0,0 +1,116 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Result cache: hits skip the work, the byte budget holds, and popular entries survive scans.
+ */
+@DisplayName("SummaryCache")
+class SummaryCacheTest {
+
+    private final NumberRangeSummarizer summarizer = new NumberRangeSummarizerImpl();
+    private final AtomicInteger computed = new AtomicInteger();
+    private final Function<String, String> summarize = text -> {
+        computed.incrementAndGet();
+        return summarizer.summarize(summarizer.collectInts(text));
+    };
+
+    @Test
+    @DisplayName("a repeated input is answered without summarizing again")
+    void hit() {
+        SummaryCache cache = new SummaryCache(1 << 20);
+        assertEquals("1-3, 5", cache.summarize("1,2,3,5", summarize));
+        assertEquals("1-3, 5", cache.summarize("1,2,3,5", summarize));
+        assertEquals("1-3, 5", cache.summarize("1,2,3,5".getBytes(StandardCharsets.UTF_8), summarize));
+        assertEquals(1, computed.get());
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+
+        // Same numbers, different text: a different key.
+        assertEquals("1-3, 5", cache.summarize("1, 2, 3, 5", summarize));
+        assertEquals(2, computed.get());
+    }
+
+    @Test
+    @DisplayName("failures are not cached")
+    void errorsNotCached() {
+        SummaryCache cache = new SummaryCache(1 << 20);
+        assertThrows(NumberFormatException.class, () -> cache.summarize("1,x", summarize));
+        assertThrows(NumberFormatException.class, () -> cache.summarize("1,x", summarize));
+        assertEquals(2, computed.get());
+        assertEquals(0, cache.bytes());
+    }
+
+    @Test
+    @DisplayName("the byte budget is never exceeded and evictions are counted")
+    void budget() {
+        SummaryCache cache = new SummaryCache(64 * 1024);
+        for (int i = 0; i < 5000; i++) {
+            cache.summarize(i + "," + (i * 3), summarize);
+            assertTrue(cache.bytes() <= cache.maxBytes());
+        }
+        assertTrue(cache.evictions() > 0);
+        assertEquals(5000, cache.misses());
+    }
+
+    @Test
+    @DisplayName("entries hit twice survive a flood of one-off inputs")
+    void scanResistant() {
+        SummaryCache cache = new SummaryCache(64 * 1024);
+        List<String> popular = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            popular.add("-" + i + ",7,8,9");
+        }
+        popular.forEach(p -> cache.summarize(p, summarize));
+        popular.forEach(p -> cache.summarize(p, summarize));
+        for (int i = 0; i < 10_000; i++) {
+            cache.summarize("1000," + i, summarize);
+        }
+        int before = computed.get();
+        popular.forEach(p -> cache.summarize(p, summarize));
+        assertEquals(before, computed.get());
+    }
+
+    @Test
+    @DisplayName("concurrent callers see consistent answers and counters")
+    void concurrent() throws Exception {
+        SummaryCache cache = new SummaryCache(256 * 1024);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        int k = i % 500;
+                        assertEquals(k + "-" + (k + 1), cache.summarize(k + "," + (k + 1), summarize));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(8 * 20_000, cache.hits() + cache.misses());
+        assertTrue(cache.hits() > cache.misses());
+    }
+
+    @Test
+    @DisplayName("unusably small budgets are rejected")
+    void tooSmall() {
+        assertThrows(IllegalArgumentException.class, () -> new SummaryCache(100));
+    }
+}
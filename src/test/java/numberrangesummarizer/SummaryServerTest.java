@@ -0,0 +1,268 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * HTTP service on localhost: both endpoints, error statuses, and many concurrent clients.
+ */
+@DisplayName("SummaryServer")
+class SummaryServerTest {
+
+    private final NumberRangeSummarizer summarizer = new NumberRangeSummarizerImpl();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private SummaryServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = start(SummaryServer.fixedPool(8));
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    private SummaryServer start(final ExecutorService executor) throws IOException {
+        return new SummaryServer(summarizer, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), executor);
+    }
+
+    private HttpResponse<String> post(final SummaryServer target, final String path, final String body)
+            throws IOException, InterruptedException {
+        return client.send(request(target, path, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest request(final SummaryServer target, final String path, final String body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + target.port() + path))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    @Test
+    @DisplayName("POST /summarize returns the summary")
+    void summarize() throws Exception {
+        HttpResponse<String> response = post(server, "/summarize", "1,2,3,4,6,5,4,3,2");
+        assertEquals(200, response.statusCode());
+        assertEquals("1-4, 6-2\n", response.body());
+
+        assertEquals("\n", post(server, "/summarize", "").body());
+    }
+
+    @Test
+    @DisplayName("large bodies are summarized exactly like the library call")
+    void largeBody() throws Exception {
+        int[] values = new int[300_000];
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i % 1000 < 600) ? i : -i;
+            csv.append(values[i]).append(i % 7 == 0 ? " , " : ",");
+        }
+        assertEquals(summarizer.summarize(values) + "\n", post(server, "/summarize", csv.toString()).body());
+    }
+
+    @Test
+    @DisplayName("bad input is a 400 with the parser's message, wrong method a 405")
+    void errors() throws Exception {
+        HttpResponse<String> bad = post(server, "/summarize", "1,2,x,4");
+        assertEquals(400, bad.statusCode());
+        assertEquals("Error: Invalid integer token: 'x' at position 4\n", bad.body());
+
+        HttpResponse<String> get = client.send(
+            HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + "/summarize")).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, get.statusCode());
+    }
+
+    @Test
+    @DisplayName("POST /batch answers one line per input line, in order")
+    void batch() throws Exception {
+        HttpResponse<String> response = post(server, "/batch", "1,2,3\n5,x\n\n9,8\n");
+        assertEquals(200, response.statusCode());
+        String nl = System.lineSeparator();
+        assertEquals("Result: 1-3" + nl + "Error: Invalid integer token: 'x' at position 2" + nl
+            + "Result: " + nl + "Result: 9-8" + nl, response.body());
+    }
+
+    @Test
+    @DisplayName("many concurrent requests all get their own answer")
+    void concurrent() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> pending = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String body = i + "," + (i + 1) + "," + (i + 2) + ",0";
+            pending.add(client.sendAsync(request(server, "/summarize", body), HttpResponse.BodyHandlers.ofString()));
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            HttpResponse<String> response = pending.get(i).join();
+            assertEquals(200, response.statusCode());
+            assertEquals(i + "-" + (i + 2) + ", 0\n", response.body());
+        }
+    }
+
+    @Test
+    @DisplayName("a sorted summarizer gives set semantics on both endpoints")
+    void sorted() throws Exception {
+        try (SummaryServer sortedServer = new SummaryServer(new SortedRangeSummarizer(),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), SummaryServer.fixedPool(2))) {
+            assertEquals("1-3, 5\n", post(sortedServer, "/summarize", "3,1,5,2,2").body());
+            assertEquals("Result: 2-6" + System.lineSeparator(), post(sortedServer, "/batch", "6,5,4,3,2\n").body());
+        }
+    }
+
+    @Test
+    @DisplayName("/summarize streams into whatever summarizer it was given")
+    void anySummarizer() throws Exception {
+        // A wrapper the server knows nothing about: only the default streamTo applies.
+        NumberRangeSummarizer sortedInside = new NumberRangeSummarizer() {
+            private final NumberRangeSummarizer inner = new SortedRangeSummarizer();
+            @Override public Collection<Integer> collect(String input) { return inner.collect(input); }
+            @Override public int[] collectInts(CharSequence input) { return inner.collectInts(input); }
+            @Override public String summarizeCollection(Collection<Integer> input) { return inner.summarizeCollection(input); }
+            @Override public String summarize(IntSequence input) { return inner.summarize(input); }
+        };
+        for (NumberRangeSummarizer s : List.of(sortedInside, new ParallelRangeSummarizer(),
+                new InstrumentedRangeSummarizer(new SortedRangeSummarizer(), new SummarizerMetrics()))) {
+            try (SummaryServer other = new SummaryServer(s,
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), SummaryServer.fixedPool(2))) {
+                String body = "3,1,5,2,2,9,8";
+                assertEquals(s.summarize(s.collectInts(body)) + "\n", post(other, "/summarize", body).body());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("with a cache, repeated bodies are served without summarizing again")
+    void cached() throws Exception {
+        SummaryCache cache = new SummaryCache(1 << 20);
+        try (SummaryServer cachedServer = new SummaryServer(summarizer,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), SummaryServer.fixedPool(2), cache)) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals("1-4, 6-2\n", post(cachedServer, "/summarize", "1,2,3,4,6,5,4,3,2").body());
+            }
+            assertEquals(400, post(cachedServer, "/summarize", "1,x").statusCode());
+            post(cachedServer, "/batch", "1,2,3,4,6,5,4,3,2\n7\n");
+            assertEquals(3, cache.hits());
+            assertEquals(3, cache.misses());
+        }
+    }
+
+    @Test
+    @DisplayName("an instrumented summarizer gets GET /metrics, streamed bodies included")
+    void metrics() throws Exception {
+        SummarizerMetrics metrics = new SummarizerMetrics();
+        try (SummaryServer instrumented = new SummaryServer(new InstrumentedRangeSummarizer(summarizer, metrics),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), SummaryServer.fixedPool(2))) {
+            post(instrumented, "/summarize", "1,2,3");
+            post(instrumented, "/summarize", "1,x");
+            post(instrumented, "/batch", "4,5\n6\n");
+            HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + instrumented.port() + "/metrics")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("summarizer_calls_total 3\n"), response.body());
+            assertTrue(response.body().contains("summarizer_elements_parsed_total 6\n"), response.body());
+            assertTrue(response.body().contains("summarizer_parse_failures_total 1\n"), response.body());
+        }
+        // Streamed bodies record their runs and every phase, not just the parse.
+        assertEquals(3, metrics.getRunsEmitted());
+        assertEquals(2, metrics.runLengthBucket(2));  // 1-3 streamed, 4-5 from /batch
+        assertEquals(3, metrics.phaseCount(SummarizerMetrics.Phase.TO_RUNS));
+        assertEquals(3, metrics.phaseCount(SummarizerMetrics.Phase.RENDER));
+
+        // Cache hits are calls too, on both endpoints.
+        SummarizerMetrics cachedMetrics = new SummarizerMetrics();
+        try (SummaryServer cachedServer = new SummaryServer(new InstrumentedRangeSummarizer(summarizer, cachedMetrics),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), SummaryServer.fixedPool(2),
+                new SummaryCache(1 << 20))) {
+            for (int i = 0; i < 3; i++) {
+                post(cachedServer, "/summarize", "1,2,3");
+                post(cachedServer, "/batch", "4,5\n");
+            }
+        }
+        assertEquals(6, cachedMetrics.getCalls());
+        assertEquals(5, cachedMetrics.getElementsParsed());  // misses only
+        assertEquals(404, client.send(
+            HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + "/metrics")).GET().build(),
+            HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    @DisplayName("virtual threads serve the same way when the JDK has them")
+    void virtualThreads() throws Exception {
+        if (!SummaryServer.supportsVirtualThreads()) {
+            assertThrows(UnsupportedOperationException.class, SummaryServer::virtualThreads);
+        }
+        assumeTrue(SummaryServer.supportsVirtualThreads());
+        try (SummaryServer virtual = start(SummaryServer.virtualThreads())) {
+            assertEquals("3-1\n", post(virtual, "/summarize", "3,2,1").body());
+        }
+    }
+
+    @Test
+    @DisplayName("reader parsing carries tokens and error positions across chunks")
+    void readerChunks() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; csv.length() < 3 * CsvIntParser.STREAM_CHUNK; i++) {
+            csv.append(-123456 - i).append(',');
+            expected.add(-123456 - i);
+        }
+        List<Integer> actual = new ArrayList<>();
+        CsvIntParser.parse(new StringReader(csv.toString()), actual::add);
+        assertEquals(expected, actual);
+
+        String bad = csv + "12a";
+        NumberFormatException e = assertThrows(NumberFormatException.class,
+            () -> CsvIntParser.parse(new StringReader(bad), v -> { }));
+        assertEquals("Invalid integer token: '12a' at position " + csv.length(), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("reader parsing never buffers more than a chunk for one comma-free token")
+    void readerLongTokens() throws IOException {
+        String pad = " ".repeat(3 * CsvIntParser.STREAM_CHUNK);
+        List<Integer> actual = new ArrayList<>();
+        CsvIntParser.parse(new StringReader("1," + pad + "2" + pad + ",\u0663" + pad + ",4" + pad), actual::add);
+        assertEquals(List.of(1, 2, 3, 4), actual);
+
+        actual.clear();
+        CsvIntParser.parse(new StringReader(pad + pad), actual::add);
+        assertTrue(actual.isEmpty());
+
+        NumberFormatException split = assertThrows(NumberFormatException.class,
+            () -> CsvIntParser.parse(new StringReader("1,5" + pad + "6,7"), v -> { }));
+        assertEquals("Invalid integer token: '5 6' at position 2", split.getMessage());
+
+        // An endless token is rejected once it passes the cap, not buffered until memory runs out.
+        Reader endless = new Reader() {
+            @Override public int read(char[] cbuf, int off, int len) {
+                Arrays.fill(cbuf, off, off + len, '7');
+                return len;
+            }
+            @Override public void close() { }
+        };
+        NumberFormatException tooLong = assertThrows(NumberFormatException.class,
+            () -> CsvIntParser.parse(endless, v -> { }));
+        assertTrue(tooLong.getMessage().endsWith("…' at position 0"), tooLong.getMessage());
+    }
+}
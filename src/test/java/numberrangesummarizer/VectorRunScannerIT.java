@@ -0,0 +1,47 @@
+package numberrangesummarizer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the packaged multi-release jar with jdk.incubator.vector added (mvn verify
+ * on JDK 17+): the SIMD scanner must be active and agree with the scalar state machine.
+ */
+@DisplayName("RunScanner (vectorized, from the jar)")
+class VectorRunScannerIT {
+
+    @Test
+    @DisplayName("the Java 17 scanner is picked up and uses the Vector API")
+    void vectorized() {
+        assertTrue(RunScanner.vectorized());
+    }
+
+    @Test
+    @DisplayName("vector run boundaries match RunDetector on every shape")
+    void matchesDetector() {
+        Random random = new Random(3);
+        for (int round = 0; round < 300; round++) {
+            int[] values = new int[random.nextInt(2000)];
+            int v = random.nextInt();
+            for (int i = 0; i < values.length; i++) {
+                // Long runs either way, with the occasional jump, duplicate or wrap-around.
+                int r = random.nextInt(100);
+                v += r < 48 ? 1 : r < 96 ? -1 : r < 98 ? 0 : random.nextInt();
+                values[i] = (round % 3 == 0) ? i + Integer.MAX_VALUE - 500 : v;
+            }
+            List<Run> expected = new ArrayList<>();
+            RunDetector detector = new RunDetector((a, b) -> expected.add(new Run(a, b)));
+            for (int value : values) {
+                detector.accept(value);
+            }
+            detector.finish();
+            assertEquals(expected, NumberRangeSummarizerImpl.toRuns(values, 0, values.length));
+        }
+    }
+}